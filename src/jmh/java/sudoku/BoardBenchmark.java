@@ -0,0 +1,82 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the operations of the board that the searches call at
+ * every node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BoardBenchmark {
+  @Param({"1/a", "1/b", "2/b"})
+  public String board;
+
+  @Param({"true", "false"})
+  public boolean tracking;
+
+  private Board sudoku;
+  private int row;
+  private int col;
+  private int value;
+
+  /**
+   * Load the board and pick the cell to set, the one a search would guess.
+   */
+  @Setup
+  public void setup() {
+    sudoku = Boards.load(board);
+    sudoku.setSearchSpaceTracking(tracking);
+    Board.Cell cell = sudoku.getBestNextToFill();
+    row = cell.row;
+    col = cell.col;
+    value = Integer.numberOfTrailingZeros(sudoku.getCandidatesMask(row, col));
+  }
+
+  /**
+   * Guess a value for a cell and take it back, as a search does.
+   */
+  @Benchmark
+  public Board setCell() {
+    sudoku.setCell(row, col, value);
+    sudoku.setCell(row, col, Board.EMPTY_CELL);
+    return sudoku;
+  }
+
+  @Benchmark
+  public Board.Cell getBestNextToFill() {
+    return sudoku.getBestNextToFill();
+  }
+
+  @Benchmark
+  public BigInteger getSearchSpace() {
+    return sudoku.getSearchSpace();
+  }
+
+  @Benchmark
+  public double getLog2SearchSpace() {
+    return sudoku.getLog2SearchSpace();
+  }
+
+  @Benchmark
+  public Board cloneBoard() {
+    return new Board(sudoku);
+  }
+}
@@ -0,0 +1,29 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Loader of the boards of the benchmarking suite.
+ */
+final class Boards {
+  /**
+   * Default Constructor.
+   */
+  private Boards() {}
+
+  /**
+   * Load a board of the benchmarking suite.
+   * @param name the name of the board, such as 1/a.
+   */
+  static Board load(String name) {
+    try {
+      return SolverService.parse(
+          String.join("", Files.readAllLines(Paths.get("src/benchmark/boards", name + ".txt"))));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
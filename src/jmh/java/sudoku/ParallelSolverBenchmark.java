@@ -0,0 +1,68 @@
+package sudoku;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Macrobenchmark of the enumeration of the boards of the benchmarking suite by
+ * the fork/join solver, on a dedicated pool, for several sequential cutoffs
+ * and numbers of workers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSolverBenchmark {
+  @Param({"1/a", "1/b", "1/c", "2/a", "2/b", "2/c"})
+  public String board;
+
+  @Param({"1e20", "1e28", "1e36"})
+  public String cutoff;
+
+  @Param({"1", "2", "4"})
+  public int threads;
+
+  private Board sudoku;
+  private SplitPolicy policy;
+  private ForkJoinPool pool;
+
+  /**
+   * Load the board and start the pool.
+   */
+  @Setup
+  public void setup() {
+    sudoku = Boards.load(board);
+    policy = SplitPolicy.fixed(new BigDecimal(cutoff).toBigInteger());
+    pool = new ParallelSolver.Config().parallelism(threads).newPool();
+  }
+
+  /**
+   * Stop the pool.
+   */
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public BigInteger enumerate() {
+    return ParallelSolver.enumerate(sudoku, null, null, policy, pool);
+  }
+}
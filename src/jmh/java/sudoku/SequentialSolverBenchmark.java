@@ -0,0 +1,43 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Macrobenchmark of the enumeration of the boards of the benchmarking suite by
+ * the sequential solver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SequentialSolverBenchmark {
+  @Param({"1/a", "1/b", "1/c", "2/a", "2/b", "2/c"})
+  public String board;
+
+  private Board sudoku;
+
+  @Setup
+  public void setup() {
+    sudoku = Boards.load(board);
+  }
+
+  @Benchmark
+  public BigInteger enumerate() {
+    return SequentialSolver.enumerate(sudoku);
+  }
+}
@@ -0,0 +1,65 @@
+package sudoku.util;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the sum that counts the solutions, against a plain
+ * {@link BigInteger} sum.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BigIntSumBenchmark {
+  private BigIntSum sum;
+  private BigInteger big;
+  private long value;
+
+  /**
+   * Start from a value that needs more than a long.
+   */
+  @Setup
+  public void setup() {
+    sum = new BigIntSum(BigInteger.ONE.shiftLeft(70));
+    big = BigInteger.ONE.shiftLeft(70);
+    value = 4715L;
+  }
+
+  @Benchmark
+  public BigIntSum inc() {
+    return sum.inc();
+  }
+
+  @Benchmark
+  public BigIntSum add() {
+    return sum.add(value);
+  }
+
+  /**
+   * Add a value and read the sum, which folds the pending part into the big one.
+   */
+  @Benchmark
+  public BigInteger addGet() {
+    return sum.add(value).get();
+  }
+
+  @Benchmark
+  public BigInteger bigIntegerAdd() {
+    big = big.add(BigInteger.valueOf(value));
+    return big;
+  }
+}
@@ -4,18 +4,32 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
+import sudoku.jfr.RequestPhaseEvent;
+
 
 public class App {
   public static class Args {
@@ -25,6 +39,21 @@ public class App {
     @Parameter(names = {"-p"}, description = "Print all the solutions")
     public boolean print = false;
 
+    @Parameter(names = {"--ordered"}, description = "Print the solutions in a stable order")
+    public boolean ordered = false;
+
+    @Parameter(names = {"--first"}, description = "Find only the first solution")
+    public boolean first = false;
+
+    @Parameter(names = {"--restarts"}, description = "Restart the first solution search")
+    public boolean restarts = false;
+
+    @Parameter(names = {"-ru"}, description = "Guesses of the shortest restart")
+    public long restartUnit = RestartSolver.DEFAULT_UNIT;
+
+    @Parameter(names = {"-seed"}, description = "Seed of the random choices")
+    public long seed = 0L;
+
     @Parameter(names = {"-s"}, description = "Disable parallelism")
     public boolean sequential = false;
 
@@ -34,35 +63,180 @@ public class App {
     @Parameter(names = {"-t"}, description = "Enable benchmarking mode with time")
     public int time = 0;
 
+    @Parameter(names = {"-wi"}, description = "Untimed iterations of benchmarking mode")
+    public int warmupIterations = 0;
+
+    @Parameter(names = {"-bf"}, description = "Format of the benchmarking results")
+    public String benchFormat = "csv";
+
+    @Parameter(names = {"-w"}, description = "Milliseconds of warm-up of the solvers")
+    public int warmup = 0;
+
     @Parameter(names = {"-cf"}, description = "Sequential cutoff")
     public BigDecimal cutoff = null;
 
+    @Parameter(names = {"-e"}, description = "Parallel engine")
+    public String engine = "forkjoin";
+
+    @Parameter(names = {"-j"}, description = "Number of worker threads")
+    public int threads = 0;
+
+    @Parameter(names = {"-sp"}, description = "Split policy")
+    public String policy = "fixed";
+
+    @Parameter(names = {"-fd"}, description = "Maximum depth of the frontier")
+    public int frontierDepth = Integer.MAX_VALUE;
+
+    @Parameter(names = {"-fs"}, description = "Target size of the frontier")
+    public int frontierSize = 0;
+
+    @Parameter(names = {"--batch"}, description = "Count the solutions of files of puzzles")
+    public boolean batch = false;
+
+    @Parameter(names = {"-o"}, description = "Output file of the batch and print modes")
+    public String output = null;
+
+    @Parameter(names = {"-f"}, description = "Format of the printed solutions")
+    public String format = null;
+
+    @Parameter(names = {"--decode"}, description = "Decode files of binary solutions")
+    public boolean decode = false;
+
+    @Parameter(names = {"--daemon"}, description = "Serve requests on a loopback socket")
+    public boolean daemon = false;
+
+    @Parameter(names = {"--serve"}, description = "Serve HTTP requests on a loopback socket")
+    public boolean serve = false;
+
+    @Parameter(names = {"-port"}, description = "Port of the daemon or of the service")
+    public int port = 0;
+
+    @Parameter(names = {"-cap"}, description = "Cores that a single request can take")
+    public int maxCores = 0;
+
+    @Parameter(names = {"-lane"}, description = "Estimated nodes of the batch lane")
+    public double batchLaneNodes = SolverService.DEFAULT_BATCH_LANE_NODES;
+
+    @Parameter(names = {"-budget"}, description = "Estimated nodes above which to reject")
+    public double maxNodes = SolverService.DEFAULT_MAX_NODES;
+
+    @Parameter(names = {"--sweep"}, description = "Sweep the speedup over worker counts")
+    public boolean sweep = false;
+
+    @Parameter(names = {"-sw"}, description = "Worker counts of the sweep")
+    public List<Integer> sweepWorkers = new ArrayList<>();
+
+    @Parameter(names = {"--tune"}, description = "Tune the cutoff and write the profile")
+    public boolean tune = false;
+
+    @Parameter(names = {"--stats"}, description = "Print search statistics")
+    public boolean stats = false;
+
     @Parameter(description = "<filename>[ <filename>]*")
     public List<String> filenames = new ArrayList<>();
   }
 
   private final boolean help;
   private final boolean print;
+  private final boolean ordered;
+  private final boolean first;
+  private final boolean restarts;
+  private final long restartUnit;
+  private final long seed;
   private final boolean sequential;
   private final int iterations;
   private final int time;
+  private final int warmupIterations;
+  private final String benchFormat;
+  private final int warmup;
   private final BigDecimal cutoff;
+  private final BigInteger profileCutoff;
+  private final String engine;
+  private final String policy;
+  private final int threads;
+  private final int frontierDepth;
+  private final int frontierSize;
+  private final boolean batch;
+  private final String output;
+  private final String format;
+  private final boolean decode;
+  private final boolean daemon;
+  private final boolean serve;
+  private final int maxCores;
+  private final double batchLaneNodes;
+  private final double maxNodes;
+  private final int port;
+  private final boolean sweep;
+  private final List<Integer> sweepWorkers;
+  private final boolean tune;
+  private final boolean stats;
   private final List<String> filenames;
+  private ForkJoinPool pool;
+  private FileChannel channel;
+  private SolutionWriter writer;
 
   /**
    * Default Constructor.
    * @param args the arguments for the app.
    */
   public App(Args args) {
+    this(args, null);
+  }
+
+  /**
+   * Default Constructor.
+   * @param args the arguments for the app.
+   * @param profile the profile of the machine, whose cutoff is used when none
+   *     is given, can be null.
+   */
+  public App(Args args, MachineProfile profile) {
     help = args.help;
     print = args.print;
+    ordered = args.ordered;
+    first = args.first;
+    restarts = args.restarts;
+    restartUnit = args.restartUnit;
+    seed = args.seed;
     iterations = args.iterations;
     time = args.time;
+    warmupIterations = args.warmupIterations;
+    benchFormat = args.benchFormat;
+    warmup = args.warmup;
     cutoff = args.cutoff;
+    profileCutoff = profile == null ? null : profile.getCutoff();
+    engine = args.engine;
+    policy = args.policy;
+    threads = args.threads;
+    frontierDepth = args.frontierDepth;
+    frontierSize = args.frontierSize;
     sequential = args.sequential;
+    batch = args.batch;
+    output = args.output;
+    format = args.format;
+    decode = args.decode;
+    daemon = args.daemon;
+    serve = args.serve;
+    maxCores = args.maxCores;
+    batchLaneNodes = args.batchLaneNodes;
+    maxNodes = args.maxNodes;
+    port = args.port;
+    sweep = args.sweep;
+    sweepWorkers = new ArrayList<>(args.sweepWorkers);
+    tune = args.tune;
+    stats = args.stats;
     filenames = new ArrayList<>(args.filenames);
   }
 
+  /**
+   * Create the app for a command line, with the profile of this machine if it
+   * was tuned with as many workers as the arguments ask for.
+   * @param args the arguments for the app.
+   */
+  public static App withProfile(Args args) {
+    int workers = args.threads > 0 ? args.threads : Runtime.getRuntime().availableProcessors();
+    return new App(args, MachineProfile.loadDefault(workers));
+  }
+
   /**
    * Read a file containing a sudoku description and convert it to an int matrix.
    * @param filename a path to a file or a filname in the cwd.
@@ -108,13 +282,255 @@ public class App {
    * @param onSolution callback called each time a solution is found.
    */
   public BigInteger enumerate(Board board, Consumer<Board> onSolution) {
+    return enumerate(board, onSolution, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   */
+  public BigInteger enumerate(Board board, Consumer<Board> onSolution, SearchStats stats) {
+    if (sequential) {
+      return SequentialSolver.enumerate(board, onSolution, stats);
+    }
+    switch (engine) {
+      case "forkjoin":
+        return ParallelSolver.enumerate(board, onSolution, stats, newSplitPolicy(), pool);
+      case "stealing":
+        return WorkStealingSolver.enumerate(board, onSolution, pool);
+      case "frontier":
+        if (onSolution != null) {
+          throw new IllegalArgumentException("The frontier engine can only count the solutions");
+        }
+        return FrontierSolver.enumerate(board, frontierDepth, frontierSize, pool);
+      default:
+        throw new IllegalArgumentException("Unknown parallel engine: " + engine);
+    }
+  }
+
+  /**
+   * Find a legal solution of the given board.
+   * @param board the board for which to find a solution.
+   * @return the first solution found, null if the board has none.
+   */
+  public Solution solve(Board board) {
+    if (restarts) {
+      return RestartSolver.solve(board, restartUnit, seed);
+    }
     if (sequential) {
-      return SequentialSolver.enumerate(board, onSolution);
+      return FirstSolutionSolver.solve(board);
     }
+    return PortfolioSolver.solve(board, Heuristic.portfolio(), seed, pool);
+  }
+
+  /**
+   * Create the split policy for a single parallel enumeration.
+   */
+  private SplitPolicy newSplitPolicy() {
+    switch (policy) {
+      case "fixed":
+        return getFixedPolicy();
+      case "adaptive":
+        return threads > 0 ? SplitPolicy.adaptive(threads) : SplitPolicy.adaptive();
+      default:
+        throw new IllegalArgumentException("Unknown split policy: " + policy);
+    }
+  }
+
+  /**
+   * Get the fixed split policy of the cutoff given, or else of the cutoff of
+   * the machine profile.
+   */
+  private SplitPolicy getFixedPolicy() {
     if (cutoff != null) {
-      ParallelSolver.setSequentialCutoff(cutoff.toBigInteger());
+      return SplitPolicy.fixed(cutoff.toBigInteger());
     }
-    return ParallelSolver.enumerate(board, onSolution);
+    return profileCutoff == null
+        ? ParallelSolver.getDefaultPolicy() : SplitPolicy.fixed(profileCutoff);
+  }
+
+  /**
+   * Get the writer of the solutions, opening the output on the first call.
+   * The solutions of all the boards go to the same output, in the same format.
+   * Without an output file, text goes to the messages of the app in large
+   * chunks, and the binary formats straight to the standard output.
+   * @param out the app will call this when needs to send a message.
+   */
+  private SolutionWriter getWriter(Consumer<String> out) throws IOException {
+    if (writer != null) {
+      return writer;
+    }
+    SolutionWriter.Format encoding;
+    switch (format == null ? "text" : format) {
+      case "text":
+        encoding = SolutionWriter.Format.TEXT;
+        break;
+      case "packed":
+        encoding = SolutionWriter.Format.PACKED;
+        break;
+      case "delta":
+        encoding = SolutionWriter.Format.DELTA;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown output format: " + format);
+    }
+    WritableByteChannel target;
+    if (output == null && encoding == SolutionWriter.Format.TEXT) {
+      target = new MessageChannel(out);
+    } else if (output == null) {
+      // Not closed, as closing the channel would close the standard output.
+      target = new FileOutputStream(FileDescriptor.out).getChannel();
+    } else {
+      channel = FileChannel.open(Paths.get(output), StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      target = channel;
+    }
+    writer = new SolutionWriter(target, encoding);
+    return writer;
+  }
+
+  /**
+   * Decode the files of binary solutions and write the solutions again, as
+   * text unless another format is given.
+   * @param out the app will call this when needs to send a message.
+   */
+  private void runDecode(Consumer<String> out) throws IOException {
+    for (String filename : filenames) {
+      Path file = Paths.get(filename);
+      if (!Files.exists(file)) {
+        throw new NoSuchFileException(filename);
+      }
+      SolutionDecoder.decode(file, getWriter(out));
+    }
+    getWriter(out).flush();
+  }
+
+  /**
+   * Serve on a loopback socket the requests of the clients, each of them made
+   * of the same arguments of the app, until the process is stopped.
+   * @param out the app will call this when needs to send a message.
+   */
+  private void runDaemon(Consumer<String> out) throws IOException {
+    try (Daemon server = new Daemon(port > 0 ? port : Daemon.DEFAULT_PORT,
+        Daemon.getDefaultTokenPath())) {
+      out.accept("Listening on port " + server.getPort() + " with the token of "
+          + server.getTokenFile() + "\n");
+      server.serve();
+    }
+  }
+
+  /**
+   * Serve on a loopback socket the HTTP requests for the puzzles, until the
+   * process is stopped.
+   * @param out the app will call this when needs to send a message.
+   */
+  private void runService(Consumer<String> out) throws IOException, InterruptedException {
+    int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    int cores = maxCores > 0 ? maxCores : Math.max(1, workers / 2);
+    try (SolverService service = new SolverService(port > 0 ? port : SolverService.DEFAULT_PORT,
+        workers, cores, batchLaneNodes, maxNodes, getFixedPolicy())) {
+      out.accept("Listening on port " + service.getPort() + "\n");
+      service.await();
+    }
+  }
+
+  /**
+   * Count the solutions of every puzzle of the files, one sequential solve per
+   * puzzle on each worker, and write a CSV line for each puzzle.
+   * @param out the app will call this when needs to send a message.
+   */
+  private void runBatch(Consumer<String> out) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (String filename : filenames) {
+      Path file = Paths.get(filename);
+      if (!Files.exists(file)) {
+        throw new NoSuchFileException(filename);
+      }
+      files.add(file);
+    }
+    int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+    BatchSolver.Summary summary;
+    if (output == null) {
+      summary = BatchSolver.solve(files, out, workers);
+    } else {
+      try (Writer writer = Files.newBufferedWriter(Paths.get(output))) {
+        summary = BatchSolver.solve(files, lines -> {
+          try {
+            writer.write(lines);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, workers);
+      }
+    }
+    out.accept(summary.toString());
+  }
+
+  /**
+   * Sweep the speedup of the parallel engine over the worker counts for each
+   * board, and write the CSV of the results.
+   * @param out the app will call this when needs to send a message.
+   */
+  private void runSweep(Consumer<String> out) throws IOException {
+    List<Integer> counts = new ArrayList<>(sweepWorkers);
+    if (counts.isEmpty()) {
+      int cores = Runtime.getRuntime().availableProcessors();
+      for (int count = 1; count < cores; count *= 2) {
+        counts.add(count);
+      }
+      counts.add(cores);
+    }
+    ScalingSweep sweeper = new ScalingSweep(counts,
+        count -> "adaptive".equals(policy) ? SplitPolicy.adaptive(count) : newSplitPolicy(),
+        warmupIterations, iterations > 0 || time > 0 ? iterations : 3, time);
+
+    out.accept(ScalingSweep.CSV_HEADER + "\n");
+    for (String filename : filenames) {
+      Board board = new Board(parse(filename));
+      // Named as the tests of the benchmarking suite, such as 1a for 1/a.txt.
+      Path file = Paths.get(filename).toAbsolutePath();
+      String name = file.getParent().getFileName() + file.getFileName().toString()
+          .replaceFirst("\\.[^.]*$", "");
+      sweeper.sweep(name, board, out);
+    }
+  }
+
+  /**
+   * Search the sequential cutoff that enumerates the boards in the least time
+   * and write it to the profile of the machine, or to the output file.
+   * @param out the app will call this when needs to send a message.
+   */
+  private void runTune(Consumer<String> out) throws IOException {
+    List<Board> boards = new ArrayList<>();
+    double high = 0.0;
+    for (String filename : filenames) {
+      Board board = new Board(parse(filename));
+      boards.add(board);
+      high = Math.max(high, board.getLog2SearchSpace() * Math.log10(2.0));
+    }
+    // From splitting close to the leaves to not splitting any of the boards.
+    double low = Math.min(10.0, high);
+    high = Math.ceil(high) + 1.0;
+
+    int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    ForkJoinPool tuning = new ParallelSolver.Config().parallelism(workers).newPool();
+    double best;
+    try {
+      CutoffTuner tuner = new CutoffTuner(boards, tuning,
+          warmupIterations > 0 ? warmupIterations : 1, iterations > 0 ? iterations : 3);
+      best = tuner.tune(low, high, 0.25, out);
+    } finally {
+      tuning.shutdown();
+    }
+
+    MachineProfile profile = new MachineProfile(CutoffTuner.cutoff(best), workers);
+    Path file = output == null ? MachineProfile.getDefaultPath() : Paths.get(output);
+    profile.store(file);
+    out.accept("Best cutoff: " + profile.getCutoff() + " (1e"
+        + String.format(Locale.ROOT, "%.2f", best) + ") written to " + file + "\n");
   }
 
   /**
@@ -122,67 +538,165 @@ public class App {
    * @param out the app will call this when needs to send a message.
    */
   public int run(Consumer<String> out) {
-    if (help || filenames.size() == 0) {
+    if (help || (filenames.size() == 0 && !daemon && !serve)) {
       out.accept(
           "Usage: sudoku [options] <filenames>[,<filenames>]*\n"
           + "  Options:\n"
           + "    --help               Print usage\n"
           + "    -p                   Print all the solutions\n"
+          + "    --ordered            Print the solutions in a stable order\n"
+          + "    --first              Find only the first solution\n"
+          + "    --restarts           Restart the first solution search on a Luby schedule\n"
+          + "    -ru <integer>        Number of guesses of the shortest restart\n"
+          + "    -seed <integer>      Seed of the random choices of the first solution search\n"
           + "    -s                   Disable parallelism\n"
-          + "    -cf <integer>        Change default sequential cutoff\n"
+          + "    -cf <integer>        Change default sequential cutoff (default the one of\n"
+          + "                         the machine profile tuned with as many workers)\n"
+          + "    -e <engine>          Parallel engine: forkjoin (default), stealing\n"
+          + "                         or frontier\n"
+          + "    -j <integer>         Number of worker threads for parallelism\n"
+          + "    -fd <integer>        Maximum depth of the frontier engine\n"
+          + "    -fs <integer>        Target size of the frontier engine\n"
+          + "    -sp <policy>         Split policy: fixed (default) or adaptive\n"
           + "    -i <integer>         Enable benchmarking mode with iterations\n"
-          + "    -t <integer>         Enable benchmarking mode with time\n"
+          + "    -t <integer>         Enable benchmarking mode with time in microseconds\n"
+          + "    -wi <integer>        Untimed iterations before those of benchmarking mode\n"
+          + "    -bf <format>         Format of the results of benchmarking mode: csv\n"
+          + "                         (default) or json\n"
+          + "    -w <integer>         Milliseconds spent warming up the solvers before the\n"
+          + "                         first board\n"
+          + "    --stats              Print search statistics\n"
+          + "    --sweep              Time the boards with the sequential engine and with the\n"
+          + "                         parallel one for each worker count, and write the\n"
+          + "                         speedup CSV\n"
+          + "    -sw <integers>       Comma separated worker counts of the sweep (default\n"
+          + "                         powers of two up to the cores)\n"
+          + "    --tune               Search the cutoff that enumerates the boards fastest and\n"
+          + "                         write it to the machine profile, or to the -o file\n"
+          + "    --batch              Count the solutions of files with one puzzle per line\n"
+          + "    -o <filename>        Write the CSV of the batch mode or the solutions of the\n"
+          + "                         print mode to a file\n"
+          + "    -f <format>          Format of the printed solutions: text (default), packed\n"
+          + "                         or delta\n"
+          + "    --decode             Decode files of packed or delta solutions\n"
+          + "    --daemon             Serve the requests of ./sudoku --client on a loopback\n"
+          + "                         socket, to the clients that can read its token file\n"
+          + "    --serve              Serve the count, unique and solve HTTP endpoints on a\n"
+          + "                         loopback socket\n"
+          + "    -port <integer>      Port of the daemon (default " + Daemon.DEFAULT_PORT + ") or\n"
+          + "                         of the service (default " + SolverService.DEFAULT_PORT + ")\n"
+          + "    -cap <integer>       Cores that a single count of the service can take\n"
+          + "                         (default half of the workers)\n"
+          + "    -lane <number>       Estimated nodes above which the service counts in the\n"
+          + "                         batch lane (default 1e7)\n"
+          + "    -budget <number>     Estimated nodes above which the service rejects a count\n"
+          + "                         (default 1e10)\n"
       );
       return 0;
     }
 
     try {
+      if (threads < 0) {
+        throw new IllegalArgumentException("The number of threads must be positive");
+      }
+      if (warmup > 0) {
+        Warmup.run(warmup, null);
+      }
+      if (daemon) {
+        runDaemon(out);
+        return 0;
+      }
+      if (serve) {
+        runService(out);
+        return 0;
+      }
+      if (batch) {
+        runBatch(out);
+        return 0;
+      }
+      if (decode) {
+        runDecode(out);
+        return 0;
+      }
+      if (sweep) {
+        runSweep(out);
+        return 0;
+      }
+      if (tune) {
+        runTune(out);
+        return 0;
+      }
+      if (threads > 0 && !sequential) {
+        pool = new ParallelSolver.Config().parallelism(threads).newPool();
+      }
+      if (iterations > 0 || time > 0) {
+        if ("csv".equals(benchFormat)) {
+          out.accept(BenchmarkRun.CSV_HEADER + "\n");
+        } else if (!"json".equals(benchFormat)) {
+          throw new IllegalArgumentException("Unknown benchmarking format: " + benchFormat);
+        }
+      }
       for (String filename : filenames) {
+        RequestPhaseEvent parsing = RequestPhaseEvent.start(filename, "parse");
         Board board = new Board(parse(filename));
+        parsing.commit();
         if (iterations > 0 || time > 0) {
-          int executions = 0;
           // Benchmarking mode
-          long timeSum = 0;
-          long timeSumSquared = 0;
-          long timeMin = -1;
-          long timeMax = -1;
-          while (true) {
-            long start = System.nanoTime();
-            BigInteger sc = enumerate(board);
-            long end = System.nanoTime();
-            long etime = (end - start) / 1000;
-            timeSum += etime;
-            timeSumSquared += etime * etime;
-            if (timeMin == -1 || timeMin > etime) {
-              timeMin = etime;
+          BenchmarkRun run = BenchmarkRun.run(filename, () -> {
+            if (first) {
+              solve(board);
+            } else {
+              enumerate(board);
             }
-            if (timeMax == -1 || timeMax < etime) {
-              timeMax = etime;
-            }
-            executions++;
-            if (iterations > 0 && executions >= iterations) {
-              break;
-            }
-            if (time > 0 && timeSum + timeSum / executions >= time) {
-              break;
-            }
-          }
-          long timeAvg = Math.round(timeSum / (double)executions);
-          long timeDev = Math.round(Math.sqrt(
-              timeSumSquared / (double)executions - Math.pow(timeSum / (double)executions, 2)
-          ));
-          out.accept(executions + "," + timeAvg + "," + timeDev + "," + timeMin + "," + timeMax);
+          }, warmupIterations, iterations, time);
+          out.accept("json".equals(benchFormat) ? run.toJson() : run.toCsv());
+        } else if (first) {
+          // First solution mode
+          RequestPhaseEvent solving = RequestPhaseEvent.start(filename, "solve");
+          Solution solution = solve(board);
+          solving.commit();
+          out.accept(solution == null ? "No solution\n" : "First solution:\n" + solution);
         } else if (print) {
           // Print mode
-          enumerate(board, b -> out.accept(b.toString() + "\n"));
+          RequestPhaseEvent printing = RequestPhaseEvent.start(filename, "print");
+          SearchStats ss = stats ? new SearchStats() : null;
+          SolutionWriter solutions = getWriter(out);
+          if (sequential) {
+            enumerate(board, solutions::write, ss);
+          } else if (ordered) {
+            OrderedSolver.enumerate(board, solutions, ss, newSplitPolicy(), pool);
+          } else {
+            try (SolutionSink sink = new SolutionSink(solutions)) {
+              enumerate(board, sink, ss);
+            }
+          }
+          solutions.flush();
+          printing.commit();
+          if (ss != null) {
+            out.accept(ss.toString());
+          }
         } else {
           // Normal mode
+          RequestPhaseEvent spacing = RequestPhaseEvent.start(filename, "search space");
           BigInteger sp = board.getSearchSpace();
+          spacing.commit();
           out.accept("Search space: " + sp + "\n");
           double ff = 100.0 - (board.getFillablesCount() * 100.0) / board.getSize();
           out.accept("Fill factor: " + String.format("%.2f", ff) + "%\n");
-          BigInteger sc = enumerate(board);
+          SearchStats ss = stats ? new SearchStats() : null;
+          if (ss != null) {
+            RequestPhaseEvent estimating = RequestPhaseEvent.start(filename, "estimate");
+            CostEstimate estimate = CostEstimate.of(board);
+            estimating.commit();
+            out.accept("Estimated cost: " + estimate + "\n");
+          }
+          RequestPhaseEvent enumerating = RequestPhaseEvent.start(filename, "enumerate");
+          BigInteger sc = enumerate(board, null, ss);
+          enumerating.commit();
           out.accept("Legal solutions: " + sc + "\n");
+          if (ss != null) {
+            out.accept(ss.toString());
+          }
         }
       }
     } catch (NoSuchFileException e) {
@@ -194,11 +708,53 @@ public class App {
     } catch (Exception e) {
       out.accept("An unexpected error occurred: " + e.toString() + "\n");
       return -1;
+    } finally {
+      if (pool != null) {
+        pool.shutdown();
+        pool = null;
+      }
+      writer = null;
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          out.accept("Could not close the output: " + e.getMessage() + "\n");
+        }
+        channel = null;
+      }
     }
 
     return 0;
   }
 
+  /**
+   * Channel that sends the bytes written to it, as ASCII text, to the messages
+   * of the app.
+   */
+  private static final class MessageChannel implements WritableByteChannel {
+    private final Consumer<String> out;
+
+    private MessageChannel(Consumer<String> out) {
+      this.out = out;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      byte[] bytes = new byte[src.remaining()];
+      src.get(bytes);
+      out.accept(new String(bytes, StandardCharsets.US_ASCII));
+      return bytes.length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+
   /**
    * Entry point of the app.
    * @param argv the arguments.
@@ -214,7 +770,7 @@ public class App {
       System.exit(3);
     }
 
-    App main = new App(args);
+    App main = App.withProfile(args);
     System.exit(main.run(System.out::print));
   }
 }
@@ -0,0 +1,210 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class BatchSolver {
+  public static final String CSV_HEADER = "file,puzzle,solutions,unique,micros\n";
+
+  private static final int BATCH_SIZE = 256;
+  private static final int BATCHES_PER_WORKER = 4;
+  private static final Future<String> END = CompletableFuture.completedFuture(null);
+
+  /**
+   * Default Constructor.
+   */
+  private BatchSolver() {}
+
+  /**
+   * Summary of a batch run.
+   */
+  public static final class Summary {
+    private final long puzzles;
+    private final long nanos;
+
+    private Summary(long puzzles, long nanos) {
+      this.puzzles = puzzles;
+      this.nanos = nanos;
+    }
+
+    /**
+     * Get the number of puzzles solved.
+     */
+    public long getPuzzles() {
+      return puzzles;
+    }
+
+    /**
+     * Get the time spent reading, solving and writing, in nanoseconds.
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    /**
+     * Get the number of puzzles solved per second.
+     */
+    public double getPuzzlesPerSecond() {
+      return puzzles / (Math.max(nanos, 1L) / 1e9);
+    }
+
+    @Override
+    public String toString() {
+      return "Puzzles: " + puzzles + "\n"
+          + "Time: " + nanos / 1_000_000 + "ms\n"
+          + "Puzzles/s: " + String.format("%.1f", getPuzzlesPerSecond()) + "\n";
+    }
+  }
+
+  /**
+   * Count the solutions of every puzzle of the given files, each holding one
+   * puzzle per line.
+   *
+   * <p>Each puzzle is enumerated sequentially, and batches of consecutive
+   * puzzles are spread across the workers. The next file is read while the
+   * current one is solved, and a single thread writes the results of the
+   * batches in order as soon as they are ready. Only a few batches per worker
+   * can be waiting to be written, so memory stays bounded however slow the
+   * output is. Once the output fails, no more files are read nor batches
+   * solved, and the batches still queued are cancelled.
+   *
+   * @param files the files to read.
+   * @param csv callback called, from a single thread and in order, with the CSV
+   *     lines of each batch, starting with {@link #CSV_HEADER}.
+   * @param threads the number of workers.
+   */
+  public static Summary solve(List<Path> files, Consumer<String> csv, int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("The number of threads must be positive");
+    }
+    long start = System.nanoTime();
+    BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(threads * BATCHES_PER_WORKER);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Thread writer = new Thread(() -> write(pending, csv, failure), "batch-writer");
+    writer.setDaemon(true);
+    writer.start();
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    long puzzles = 0L;
+    try {
+      pending.put(CompletableFuture.completedFuture(CSV_HEADER));
+      CompletableFuture<PuzzleReader.Puzzles> next = read(files, 0);
+      for (int f = 0; f < files.size() && failure.get() == null; f++) {
+        PuzzleReader.Puzzles current = next.join();
+        next = read(files, f + 1);
+        String name = files.get(f).toString();
+        for (int from = 0; from < current.size() && failure.get() == null; from += BATCH_SIZE) {
+          int first = from;
+          int last = Math.min(from + BATCH_SIZE, current.size());
+          pending.put(workers.submit(() -> solveBatch(name, current, first, last)));
+        }
+        puzzles += current.size();
+      }
+      pending.put(END);
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while solving the puzzles", e);
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    } finally {
+      workers.shutdownNow();
+      writer.interrupt();
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return new Summary(puzzles, System.nanoTime() - start);
+  }
+
+  /**
+   * Read a file in the background.
+   * @param files the files to read.
+   * @param index the index of the file to read, no file is read if out of the list.
+   */
+  private static CompletableFuture<PuzzleReader.Puzzles> read(List<Path> files, int index) {
+    if (index >= files.size()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return PuzzleReader.read(files.get(index));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  /**
+   * Count the solutions of a batch of puzzles.
+   * @param name the name of the file holding the puzzles.
+   * @param puzzles the puzzles of the file.
+   * @param first the index of the first puzzle of the batch.
+   * @param last the index right after the last puzzle of the batch.
+   * @return the CSV lines of the batch.
+   */
+  private static String solveBatch(String name, PuzzleReader.Puzzles puzzles, int first, int last) {
+    StringBuilder lines = new StringBuilder((last - first) * (name.length() + 32));
+    for (int i = first; i < last; i++) {
+      Board board = puzzles.getBoard(i);
+      long start = System.nanoTime();
+      BigInteger count = SequentialSolver.enumerate(board);
+      long micros = (System.nanoTime() - start) / 1000;
+      lines.append(name).append(',').append(i).append(',').append(count).append(',')
+          .append(count.equals(BigInteger.ONE)).append(',').append(micros).append('\n');
+    }
+    return lines.toString();
+  }
+
+  /**
+   * Body of the thread that writes the results of the batches in order. After
+   * a failure the batches are still taken, and cancelled, so that the producer
+   * never blocks.
+   * @param pending the results of the batches, in order.
+   * @param csv callback called with the CSV lines of each batch.
+   * @param failure the holder of the first failure.
+   */
+  private static void write(BlockingQueue<Future<String>> pending, Consumer<String> csv,
+      AtomicReference<RuntimeException> failure) {
+    while (true) {
+      Future<String> batch;
+      try {
+        batch = pending.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (batch == END) {
+        return;
+      }
+      if (failure.get() != null) {
+        batch.cancel(false);
+        continue;
+      }
+      try {
+        csv.accept(batch.get());
+      } catch (InterruptedException e) {
+        return;
+      } catch (ExecutionException e) {
+        failure.set(e.getCause() instanceof RuntimeException
+            ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause()));
+      } catch (RuntimeException e) {
+        failure.set(e);
+      }
+    }
+  }
+}
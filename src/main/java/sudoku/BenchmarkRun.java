@@ -0,0 +1,231 @@
+package sudoku;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import sudoku.util.LatencyHistogram;
+
+/**
+ * Measurement of the repeated runs of a task, as done by the benchmarking mode
+ * of the app.
+ *
+ * <p>The task first runs for some untimed warm-up iterations, then for the
+ * timed ones, whose latencies go into a {@link LatencyHistogram}. Over the timed
+ * iterations the run also measures the bytes allocated, summed over the threads
+ * alive at the end since the JVM forgets those of the threads that died, and
+ * the collections made by the garbage collectors.
+ *
+ * <p>The results are reported as a CSV line, under {@link #CSV_HEADER}, or as a
+ * JSON object with the same fields. Latencies are in microseconds.
+ */
+public class BenchmarkRun {
+  public static final String CSV_HEADER = "name,warmup_iterations,iterations,mean_us,stddev_us,"
+      + "min_us,p50_us,p90_us,p99_us,p999_us,max_us,alloc_bytes_per_op,gc_count,gc_time_ms";
+
+  private final String name;
+  private final int warmupIterations;
+  private final LatencyHistogram latencies;
+  private final long allocatedBytes;
+  private final long gcCount;
+  private final long gcMillis;
+
+  /**
+   * Default Constructor.
+   */
+  private BenchmarkRun(String name, int warmupIterations, LatencyHistogram latencies,
+      long allocatedBytes, long gcCount, long gcMillis) {
+    this.name = name;
+    this.warmupIterations = warmupIterations;
+    this.latencies = latencies;
+    this.allocatedBytes = allocatedBytes;
+    this.gcCount = gcCount;
+    this.gcMillis = gcMillis;
+  }
+
+  /**
+   * Run and measure a task.
+   * @param name the name of the run.
+   * @param task the task to run at each iteration.
+   * @param warmupIterations the number of untimed iterations.
+   * @param iterations the number of timed iterations, 0 to only stop on time.
+   * @param time the time in microseconds after which to stop, 0 to only stop
+   *     after the iterations. The last iteration is the one expected to end
+   *     past it.
+   */
+  public static BenchmarkRun run(
+      String name, Runnable task, int warmupIterations, int iterations, long time) {
+    if (iterations <= 0 && time <= 0) {
+      throw new IllegalArgumentException("The iterations or the time must be positive");
+    }
+    for (int i = 0; i < warmupIterations; i++) {
+      task.run();
+    }
+
+    LatencyHistogram latencies = new LatencyHistogram();
+    long[] gcBefore = collections();
+    Map<Long, Long> allocatedBefore = allocations();
+    long timeSum = 0L;
+    while (true) {
+      long start = System.nanoTime();
+      task.run();
+      long etime = System.nanoTime() - start;
+      latencies.record(etime);
+      timeSum += etime;
+      long executions = latencies.getCount();
+      if (iterations > 0 && executions >= iterations) {
+        break;
+      }
+      if (time > 0 && (timeSum + timeSum / executions) / 1000 >= time) {
+        break;
+      }
+    }
+    Map<Long, Long> allocatedAfter = allocations();
+    long[] gcAfter = collections();
+
+    long allocated = -1L;
+    if (allocatedAfter != null) {
+      allocated = 0L;
+      for (Map.Entry<Long, Long> thread : allocatedAfter.entrySet()) {
+        allocated += thread.getValue() - allocatedBefore.getOrDefault(thread.getKey(), 0L);
+      }
+    }
+    return new BenchmarkRun(name, warmupIterations, latencies,
+        allocated, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+  }
+
+  /**
+   * Get the number of collections and the milliseconds spent collecting by all
+   * the garbage collectors.
+   */
+  private static long[] collections() {
+    long[] totals = new long[2];
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      totals[0] += Math.max(0L, gc.getCollectionCount());
+      totals[1] += Math.max(0L, gc.getCollectionTime());
+    }
+    return totals;
+  }
+
+  /**
+   * Get the bytes allocated by each live thread, null if the JVM does not
+   * measure them.
+   */
+  private static Map<Long, Long> allocations() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+      return null;
+    }
+    long[] ids = threads.getAllThreadIds();
+    long[] bytes = threads.getThreadAllocatedBytes(ids);
+    Map<Long, Long> allocated = new HashMap<>();
+    for (int i = 0; i < ids.length; i++) {
+      if (bytes[i] >= 0) {
+        allocated.put(ids[i], bytes[i]);
+      }
+    }
+    return allocated;
+  }
+
+  /**
+   * Get the name of the run.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the latencies of the timed iterations, in nanoseconds.
+   */
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
+
+  /**
+   * Get the mean bytes allocated by an iteration, -1 if the JVM does not
+   * measure them.
+   */
+  public long getAllocatedBytesPerIteration() {
+    return allocatedBytes < 0 ? -1L : Math.round(allocatedBytes / (double) latencies.getCount());
+  }
+
+  /**
+   * Get the number of garbage collections during the timed iterations.
+   */
+  public long getGcCount() {
+    return gcCount;
+  }
+
+  /**
+   * Get the milliseconds spent collecting garbage during the timed iterations.
+   */
+  public long getGcMillis() {
+    return gcMillis;
+  }
+
+  /**
+   * Get the values of the fields, in the order of the header.
+   */
+  private Object[] values() {
+    return new Object[] {
+      warmupIterations, latencies.getCount(), micros(latencies.getMean()),
+      micros(latencies.getStdDev()), micros(latencies.getMin()),
+      micros(latencies.getValueAtQuantile(0.5)), micros(latencies.getValueAtQuantile(0.9)),
+      micros(latencies.getValueAtQuantile(0.99)), micros(latencies.getValueAtQuantile(0.999)),
+      micros(latencies.getMax()), getAllocatedBytesPerIteration(), gcCount, gcMillis
+    };
+  }
+
+  /**
+   * Convert nanoseconds to whole microseconds.
+   * @param nanos the nanoseconds.
+   */
+  private static long micros(double nanos) {
+    return Math.round(nanos / 1000.0);
+  }
+
+  /**
+   * Format the results as a line of CSV, under {@link #CSV_HEADER}.
+   */
+  public String toCsv() {
+    StringBuilder line = new StringBuilder();
+    if (name.contains(",") || name.contains("\"")) {
+      line.append('"').append(name.replace("\"", "\"\"")).append('"');
+    } else {
+      line.append(name);
+    }
+    for (Object value : values()) {
+      line.append(',').append(value);
+    }
+    return line.append('\n').toString();
+  }
+
+  /**
+   * Format the results as a single line JSON object, with the fields of the
+   * CSV header.
+   */
+  public String toJson() {
+    String[] fields = CSV_HEADER.split(",");
+    StringBuilder line = new StringBuilder("{\"").append(fields[0]).append("\":\"");
+    for (char c : name.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        line.append('\\').append(c);
+      } else if (c < ' ') {
+        line.append(String.format("\\u%04x", (int) c));
+      } else {
+        line.append(c);
+      }
+    }
+    line.append('"');
+    Object[] values = values();
+    for (int i = 0; i < values.length; i++) {
+      line.append(",\"").append(fields[i + 1]).append("\":").append(values[i]);
+    }
+    return line.append("}\n").toString();
+  }
+}
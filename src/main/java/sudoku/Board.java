@@ -27,6 +27,17 @@ final class Board {
   private static final int MAX_BOARD_LENGTH = 9; // Math.floor(Math.sqrt(Byte.MAX_VALUE))
   public static final int EMPTY_CELL = 0;
 
+  // The log2 of the search space is kept in fixed point, so that adding and
+  // removing the same cells always gives back the same value.
+  private static final int LOG2_FRACTION_BITS = 32;
+  private static final long[] LOG2_FIXED = new long[MAX_BOARD_LENGTH + 1];
+
+  static {
+    for (int count = 1; count <= MAX_BOARD_LENGTH; count++) {
+      LOG2_FIXED[count] = Math.round(Math.log(count) / Math.log(2) * (1L << LOG2_FRACTION_BITS));
+    }
+  }
+
   private static int[] BITSET_COUNT = null;
   private static int BITSET_SIZE = 0;
 
@@ -38,13 +49,16 @@ final class Board {
 
   private int nextFreeRow;
   private int[] nextFreeOnRow;
-  private int nextBestFreeRow;
-  private int[] nextBestFreeOnRow;
+  private Cell nextBestFree;
 
   private int[] rowUsed;
   private int[] colUsed;
   private int[] boxUsed;
 
+  private boolean tracking;
+  private long log2Space;
+  private int deadCells;
+
   /**
    * Default Constructor.
    *
@@ -74,8 +88,6 @@ final class Board {
 
     nextFreeRow = 0;
     nextFreeOnRow = new int[boardLength];
-    nextBestFreeRow = 0;
-    nextBestFreeOnRow = new int[boardLength];
 
     this.board = new int[boardLength][boardLength];
     for (int row = 0; row < boardLength; row++) {
@@ -87,6 +99,32 @@ final class Board {
         setCell(row, col, board[row][col]);
       }
     }
+    setSearchSpaceTracking(true);
+  }
+
+  /**
+   * Packed Constructor.
+   *
+   * @param cells the values of the cells, one byte per cell, 0 for empty cells.
+   *     (left to right, top to bottom)
+   * @param offset the position of the array holding the first cell.
+   * @param boardLength the width and height of the board.
+   */
+  public Board(byte[] cells, int offset, int boardLength) {
+    this(new int[boardLength][boardLength]);
+    setSearchSpaceTracking(false);
+    if (offset < 0 || offset + cellCount > cells.length) {
+      throw new IllegalArgumentException("The board is out of the array: " + offset);
+    }
+    for (int row = 0; row < boardLength; row++) {
+      for (int col = 0; col < boardLength; col++) {
+        int val = cells[offset++];
+        if (val != EMPTY_CELL) {
+          setCell(row, col, val);
+        }
+      }
+    }
+    setSearchSpaceTracking(true);
   }
 
   /**
@@ -108,10 +146,13 @@ final class Board {
     colUsed = Arrays.copyOf(other.colUsed, boardLength);
     boxUsed = Arrays.copyOf(other.boxUsed, boardLength);
 
+    tracking = other.tracking;
+    log2Space = other.log2Space;
+    deadCells = other.deadCells;
+
     nextFreeRow = other.nextFreeRow;
     nextFreeOnRow = Arrays.copyOf(other.nextFreeOnRow, boardLength);
-    nextBestFreeRow = other.nextBestFreeRow;
-    nextBestFreeOnRow = Arrays.copyOf(other.nextBestFreeOnRow, boardLength);
+    nextBestFree = other.nextBestFree;
 
     board = new int[boardLength][];
     for (int row = 0; row < boardLength; row++) {
@@ -167,15 +208,25 @@ final class Board {
       );
     }
 
+    if (tracking && oldval == EMPTY_CELL) {
+      updateSearchSpace(boardLength - getUsedCountRaw(row, col, box), -1);
+    }
+
     if (oldval != EMPTY_CELL) {
       int unsetbit = ~(1 << oldval);
       rowUsed[row] &= unsetbit;
       colUsed[col] &= unsetbit;
       boxUsed[box] &= unsetbit;
       clueCount--;
+      if (tracking) {
+        updateSearchSpaceOfPeers(row, col, box, oldval, 1);
+      }
     }
 
     if (val != EMPTY_CELL) {
+      if (tracking) {
+        updateSearchSpaceOfPeers(row, col, box, val, -1);
+      }
       int setbit = (1 << val);
       rowUsed[row] |= setbit;
       colUsed[col] |= setbit;
@@ -185,13 +236,16 @@ final class Board {
 
     board[row][col] = val;
 
+    if (tracking && val == EMPTY_CELL) {
+      updateSearchSpace(-1, boardLength - getUsedCountRaw(row, col, box));
+    }
+
     if (oldval == EMPTY_CELL) {
       updateNextToFillOnSet(row, col, box);
-      updateNextBestToFillOnSet(row, col, box);
     } else if (val == EMPTY_CELL) {
       updateNextToFillOnUnset(row, col, box);
-      updateNextBestToFillOnUnset(row, col, box);
     }
+    nextBestFree = null;
   }
 
   /**
@@ -251,6 +305,25 @@ final class Board {
     return boardLength - getUsedCountRaw(row, col);
   }
 
+  /**
+   * Get the bit-set of possible legal values to set for a particular cell, where
+   * the value v is a candidate if the bit at position v is set.
+   *
+   * @param row a row of the board.
+   * @param col a column of the board.
+   * @throws IllegalArgumentException if the action cannot be taken.
+   */
+  public int getCandidatesMask(int row, int col) {
+    if (!isValidCell(row, col)) {
+      throw new IllegalArgumentException(
+        "The cell specified is out of the board: " + row + ":" + col
+      );
+    }
+
+    int used = rowUsed[row] | colUsed[col] | boxUsed[getBoxIndexRaw(row, col)];
+    return ~used & ((1 << (boardLength + 1)) - 2);
+  }
+
   /**
    * Get a stream of empty cells of the board. (left to right, top to bottom)
    */
@@ -299,6 +372,39 @@ final class Board {
     return space.get();
   }
 
+  /**
+   * Get the base 2 logarithm of the search space. It is kept up to date by
+   * {@link #setCell} so, unlike {@link #getSearchSpace}, it takes constant time
+   * unless the tracking has been disabled. It is 0 for a full board, and
+   * negative infinity when an empty cell has no candidates.
+   */
+  public double getLog2SearchSpace() {
+    if (!tracking) {
+      computeSearchSpace();
+    }
+    if (deadCells > 0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    return log2Space / (double) (1L << LOG2_FRACTION_BITS);
+  }
+
+  /**
+   * Enable or disable the tracking of the search space by {@link #setCell}.
+   * Searches that own a board and never look at its search space disable it to
+   * keep setting cells cheap. Enabling it again recomputes the search space.
+   *
+   * @param enabled whether to track the search space.
+   * @return whether the search space was tracked before the call.
+   */
+  boolean setSearchSpaceTracking(boolean enabled) {
+    boolean previous = tracking;
+    if (enabled && !tracking) {
+      computeSearchSpace();
+    }
+    tracking = enabled;
+    return previous;
+  }
+
   /**
    * Get the next cell that is empty. (left to right, top to bottom)
    */
@@ -312,12 +418,51 @@ final class Board {
   /**
    * Get the next cell that is empty and has the least number of candidates. (left
    * to right, top to bottom)
+   *
+   * <p>The cell only depends on the values of the cells, not on the order in
+   * which they were set, so that every search sees the same tree whatever the
+   * boards it copied or the cells it cleared on the way. It is looked up again
+   * after a change of the board, on the first call.
    */
   public Cell getBestNextToFill() {
     if (nextFreeRow >= boardLength) {
       return null;
     }
-    return new Cell(nextBestFreeRow, nextBestFreeOnRow[nextBestFreeRow]);
+    if (nextBestFree == null) {
+      nextBestFree = findBestNextToFill();
+    }
+    return nextBestFree;
+  }
+
+  /**
+   * Helper function to find the next cell that is empty and has the least
+   * number of candidates.
+   */
+  private Cell findBestNextToFill() {
+    int bestRow = nextFreeRow;
+    int bestCol = nextFreeOnRow[nextFreeRow];
+    int bestUse = -1;
+    for (int row = nextFreeRow; row < boardLength; row++) {
+      int[] cells = board[row];
+      int used = rowUsed[row];
+      int boxRow = row / boxLength * boxLength;
+      for (int col = nextFreeOnRow[row]; col < boardLength; col++) {
+        if (cells[col] != EMPTY_CELL) {
+          continue;
+        }
+        int use = BITSET_COUNT[used | colUsed[col] | boxUsed[boxRow + col / boxLength]];
+        if (use > bestUse) {
+          bestRow = row;
+          bestCol = col;
+          bestUse = use;
+          if (use == boardLength) {
+            // No cell can have less than no candidates.
+            return new Cell(bestRow, bestCol);
+          }
+        }
+      }
+    }
+    return new Cell(bestRow, bestCol);
   }
 
   /**
@@ -431,6 +576,115 @@ final class Board {
     return (((row / boxLength) * boxLength) + (col / boxLength));
   }
 
+  /**
+   * Helper function to compute the search space from scratch.
+   */
+  private void computeSearchSpace() {
+    log2Space = 0L;
+    deadCells = 0;
+    for (int row = 0; row < boardLength; row++) {
+      for (int col = 0; col < boardLength; col++) {
+        if (board[row][col] == EMPTY_CELL) {
+          updateSearchSpace(-1, boardLength - getUsedCountRaw(row, col));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper function to update the search space when a value becomes used or
+   * free for all the cells sharing a row, a column or a box with a given cell.
+   * Only the empty cells for which the value is not used elsewhere change their
+   * number of candidates. Must be called while the value is free for them.
+   *
+   * @param row a row of the board.
+   * @param col a column of the board.
+   * @param box the box of the cell provided.
+   * @param val the value that becomes used or free.
+   * @param sign -1 if the value becomes used, 1 if it becomes free.
+   */
+  private void updateSearchSpaceOfPeers(int row, int col, int box, int val, int sign) {
+    int bit = 1 << val;
+    int[] cells = board[row];
+    int used = rowUsed[row];
+    int peerBox = row / boxLength * boxLength;
+    for (int scol = 0; scol < boardLength; scol += boxLength, peerBox++) {
+      if (peerBox == box) {
+        continue;
+      }
+      int peerUsed = used | boxUsed[peerBox];
+      for (int c = scol; c < scol + boxLength; c++) {
+        if (cells[c] == EMPTY_CELL) {
+          updateSearchSpaceOfPeer(peerUsed | colUsed[c], bit, sign);
+        }
+      }
+    }
+    used = colUsed[col];
+    peerBox = col / boxLength;
+    for (int srow = 0; srow < boardLength; srow += boxLength, peerBox += boxLength) {
+      if (peerBox == box) {
+        continue;
+      }
+      int peerUsed = used | boxUsed[peerBox];
+      for (int r = srow; r < srow + boxLength; r++) {
+        if (board[r][col] == EMPTY_CELL) {
+          updateSearchSpaceOfPeer(peerUsed | rowUsed[r], bit, sign);
+        }
+      }
+    }
+    used = boxUsed[box];
+    int srow = row / boxLength * boxLength;
+    int scol = col / boxLength * boxLength;
+    for (int r = srow; r < srow + boxLength; r++) {
+      int peerUsed = used | rowUsed[r];
+      int[] peers = board[r];
+      for (int c = scol; c < scol + boxLength; c++) {
+        if (peers[c] == EMPTY_CELL && (r != row || c != col)) {
+          updateSearchSpaceOfPeer(peerUsed | colUsed[c], bit, sign);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper function to update the search space for a single empty cell.
+   *
+   * @param used the bit-set of values used by the peers of the cell.
+   * @param bit the bit of the value that becomes used or free.
+   * @param sign -1 if the value becomes used, 1 if it becomes free.
+   */
+  private void updateSearchSpaceOfPeer(int used, int bit, int sign) {
+    if ((used & bit) != 0) {
+      return;
+    }
+    int count = boardLength - BITSET_COUNT[used];
+    if (sign < 0) {
+      updateSearchSpace(count, count - 1);
+    } else {
+      updateSearchSpace(count - 1, count);
+    }
+  }
+
+  /**
+   * Helper function to update the search space when the number of candidates
+   * of an empty cell changes.
+   *
+   * @param from the number of candidates before the change, -1 if the cell was not empty.
+   * @param to the number of candidates after the change, -1 if the cell is not empty.
+   */
+  private void updateSearchSpace(int from, int to) {
+    if (from == 0) {
+      deadCells--;
+    } else if (from > 0) {
+      log2Space -= LOG2_FIXED[from];
+    }
+    if (to == 0) {
+      deadCells++;
+    } else if (to > 0) {
+      log2Space += LOG2_FIXED[to];
+    }
+  }
+
   /**
    * Helper function to update the next free cell when a cell is setted.
    *
@@ -480,120 +734,17 @@ final class Board {
   }
 
   /**
-   * Helper function to update the next bext free cell when a cell is setted.
+   * Copy the values of all the cells in a packed array, one byte per cell.
+   * (left to right, top to bottom)
    *
-   * @param row a row of the board.
-   * @param col a column of the board.
-   * @param box the box of the cell provided.
+   * @param dst the array in which to copy the values.
+   * @param offset the position of the array at which to copy the first cell.
    */
-  private void updateNextBestToFillOnSet(int row, int col, int box) {
-    // Update the best cell on the given row.
-    if (col == nextBestFreeOnRow[row]) {
-      int nbrCol = nextFreeOnRow[row];
-      if (nbrCol < boardLength) {
-        int nbrUse = getUsedCountRaw(row, nbrCol);
-        for (int ntrCol = nbrCol + 1; ntrCol < boardLength; ntrCol++) {
-          if (board[row][ntrCol] != EMPTY_CELL) {
-            continue;
-          }
-          int ntrUse = getUsedCountRaw(row, ntrCol);
-          if (ntrUse > nbrUse || ntrUse == nbrUse && ntrCol < nbrCol) {
-            nbrCol = ntrCol;
-            nbrUse = ntrUse;
-          }
-        }
-      }
-      nextBestFreeOnRow[row] = nbrCol;
-    }
-
-    if (nextFreeRow == boardLength) {
-      nextBestFreeRow = boardLength;
-      return;
-    }
-
-    // Update the new best on all the rows of the given box.
-    int srow = row / boxLength * boxLength;
-    int erow = srow + boxLength;
-    int scol = col / boxLength * boxLength;
-    int ecol = scol + boxLength;
-    for (int r = Math.max(srow, nextFreeRow); r < erow; r++) {
-      if (r == row) {
-        continue;
-      }
-      int nbrCol = nextBestFreeOnRow[r];
-      if (nbrCol == boardLength) {
-        continue;
-      }
-      int nbrUse = getUsedCountRaw(r, nbrCol);
-      for (int ntrCol = Math.max(scol, nextFreeOnRow[r]); ntrCol < ecol; ntrCol++) {
-        if (board[r][ntrCol] != EMPTY_CELL || ntrCol == nbrCol) {
-          continue;
-        }
-        int ntrUse = getUsedCountRaw(r, ntrCol, box);
-        if (ntrUse > nbrUse || ntrUse == nbrUse && ntrCol < nbrCol) {
-          nbrCol = ntrCol;
-          nbrUse = ntrUse;
-        }
-      }
-      nextBestFreeOnRow[r] = nbrCol;
-    }
-
-    int nextBestFreeRowUse = -1;
-    // Update the new best on all the rows at the given col and the overall best
-    // cell.
-    for (int r = nextFreeRow; r < boardLength; r++) {
-      int nbrCol = nextBestFreeOnRow[r];
-      if (nbrCol == boardLength) {
-        continue;
-      }
-      int nbrUse = getUsedCountRaw(r, nbrCol);
-      if (nbrCol != col && board[r][col] == EMPTY_CELL && r != row) {
-        int ntrUse = getUsedCountRaw(r, col);
-        if (ntrUse > nbrUse || ntrUse == nbrUse && col < nbrCol) {
-          nextBestFreeOnRow[r] = col;
-          nbrUse = ntrUse;
-        }
-      }
-
-      if (nbrUse > nextBestFreeRowUse) {
-        nextBestFreeRow = r;
-        nextBestFreeRowUse = nbrUse;
-      }
-    }
-  }
-
-  /**
-   * Helper function to update the next bext free cell when a cell is cleared.
-   *
-   * @param row a row of the board.
-   * @param col a column of the board.
-   * @param box the box of the cell provided.
-   */
-  private void updateNextBestToFillOnUnset(int row, int col, int box) {
-    int uc = getUsedCountRaw(row, col, box);
-
-    // Update the best cell on the given row.
-    int brcol = nextBestFreeOnRow[row];
-    if (brcol == boardLength) {
-      nextBestFreeOnRow[row] = col;
-    } else {
-      int bruc = getUsedCountRaw(row, brcol);
-      if (bruc < uc) {
-        nextBestFreeOnRow[row] = col;
-      } else {
-        return;
-      }
-    }
-
-    // Update the overall best cell.
-    if (nextBestFreeRow == boardLength) {
-      nextBestFreeRow = row;
-    } else {
-      int borow = nextBestFreeRow;
-      int bocol = nextBestFreeOnRow[borow];
-      int bouc = getUsedCountRaw(borow, bocol);
-      if (bouc < uc) {
-        nextBestFreeRow = row;
+  public void writeCells(byte[] dst, int offset) {
+    for (int row = 0; row < boardLength; row++) {
+      int[] values = board[row];
+      for (int col = 0; col < boardLength; col++) {
+        dst[offset++] = (byte) values[col];
       }
     }
   }
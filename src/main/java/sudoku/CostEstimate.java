@@ -0,0 +1,176 @@
+package sudoku;
+
+import java.util.Random;
+
+/**
+ * Estimate, made before solving, of the number of boards that enumerating all
+ * the solutions of a board will visit, the same quantity counted by
+ * {@link SearchStats#getNodes}.
+ *
+ * <p>The estimate comes from a short probe: a few random dives from the root
+ * to a complete board or a dead end, each giving the sum over its levels of
+ * the product of the candidates met so far, which is an unbiased estimate of
+ * the size of the tree (Knuth, 1975). The variance grows with the depth of the
+ * tree, so emptier boards get more dives, but the probe stops early once the
+ * dives have walked more boards than the tree seems to have, as solving the
+ * board would then cost less than estimating it. The mean is then capped by
+ * the bound given by the search space, since the product of the candidates of
+ * the empty cells bounds the boards at every level.
+ */
+public final class CostEstimate {
+  private static final int MIN_PROBES = 2;
+  private static final int MAX_PROBES = 64;
+
+  private final double fillFactor;
+  private final double log2SearchSpace;
+  private final int probes;
+  private final double probeNodes;
+  private final double nodes;
+
+  /**
+   * Default Constructor.
+   */
+  private CostEstimate(
+      double fillFactor, double log2SearchSpace, int probes, double probeNodes, double nodes) {
+    this.fillFactor = fillFactor;
+    this.log2SearchSpace = log2SearchSpace;
+    this.probes = probes;
+    this.probeNodes = probeNodes;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Estimate the cost of enumerating all the solutions of a board.
+   * @param board the board to estimate, left unchanged.
+   */
+  public static CostEstimate of(Board board) {
+    return of(board, 0L);
+  }
+
+  /**
+   * Estimate the cost of enumerating all the solutions of a board.
+   * @param board the board to estimate, left unchanged.
+   * @param seed the seed of the random dives.
+   */
+  public static CostEstimate of(Board board, long seed) {
+    int fillables = board.getFillablesCount();
+    double fillFactor = 1.0 - fillables / (double) board.getSize();
+    double space = board.getLog2SearchSpace();
+    if (board.isFull() || space == Double.NEGATIVE_INFINITY) {
+      return new CostEstimate(fillFactor, space, 0, 1.0, 1.0);
+    }
+
+    int probes = MIN_PROBES + (int) Math.round((1.0 - fillFactor) * (MAX_PROBES - MIN_PROBES));
+    Probe probe = new Probe(board, seed);
+    while (probe.dives < probes
+        && (probe.dives < MIN_PROBES || probe.sum / probe.dives > probe.walked)) {
+      probe.dive();
+    }
+    double probeNodes = probe.sum / probe.dives;
+    double bound = 1.0 + fillables * Math.pow(2.0, space);
+    return new CostEstimate(
+        fillFactor, space, probe.dives, probeNodes, Math.min(probeNodes, bound));
+  }
+
+  /**
+   * Random dives from the root of a tree, which add up their estimates of the
+   * size of the tree.
+   */
+  private static final class Probe {
+    private final Board board;
+    private final Random random;
+    private final int[] rows;
+    private final int[] cols;
+    private double sum;
+    private long walked;
+    private int dives;
+
+    /**
+     * Default Constructor.
+     * @param root the root of the tree, copied by the probe.
+     * @param seed the seed of the random choices.
+     */
+    private Probe(Board root, long seed) {
+      board = new Board(root);
+      board.setSearchSpaceTracking(false);
+      random = new Random(seed);
+      rows = new int[board.getFillablesCount()];
+      cols = new int[board.getFillablesCount()];
+    }
+
+    /**
+     * Walk a random path from the root to a complete board or a dead end, then
+     * empty again the cells it set.
+     */
+    private void dive() {
+      double estimate = 1.0;
+      double width = 1.0;
+      int depth = 0;
+      while (!board.isFull()) {
+        Board.Cell cell = board.getBestNextToFill();
+        int mask = board.getCandidatesMask(cell.row, cell.col);
+        int candidates = Integer.bitCount(mask);
+        if (candidates == 0) {
+          break;
+        }
+        for (int n = random.nextInt(candidates); n > 0; n--) {
+          mask &= mask - 1;
+        }
+        board.setCell(cell.row, cell.col, Integer.numberOfTrailingZeros(mask));
+        rows[depth] = cell.row;
+        cols[depth] = cell.col;
+        depth++;
+        width *= candidates;
+        estimate += width;
+      }
+      sum += estimate;
+      walked += depth + 1;
+      dives++;
+      while (depth > 0) {
+        depth--;
+        board.setCell(rows[depth], cols[depth], Board.EMPTY_CELL);
+      }
+    }
+  }
+
+  /**
+   * Get the fraction of the cells of the board that are filled.
+   */
+  public double getFillFactor() {
+    return fillFactor;
+  }
+
+  /**
+   * Get the base 2 logarithm of the search space of the board.
+   */
+  public double getLog2SearchSpace() {
+    return log2SearchSpace;
+  }
+
+  /**
+   * Get the number of random dives made by the probe.
+   */
+  public int getProbes() {
+    return probes;
+  }
+
+  /**
+   * Get the mean of the estimates of the random dives.
+   */
+  public double getProbeNodes() {
+    return probeNodes;
+  }
+
+  /**
+   * Get the estimated number of boards visited by the enumeration.
+   */
+  public double getNodes() {
+    return nodes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%.3g nodes (fill %.2f%%, log2 space %.1f, %d probes)",
+        nodes, fillFactor * 100.0, log2SearchSpace, probes);
+  }
+}
@@ -0,0 +1,122 @@
+package sudoku;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Tuner of the sequential cutoff of the fork/join engine for a machine.
+ *
+ * <p>The time to enumerate a set of representative boards is taken to be a
+ * unimodal function of the base 10 logarithm of the cutoff: too low a cutoff
+ * drowns the search in tasks, too high a one leaves the workers idle. A
+ * golden-section search narrows the interval holding the minimum by the same
+ * ratio at every step, and needs a single new measurement per step since the
+ * other inner point is kept from the previous one.
+ */
+public class CutoffTuner {
+  private static final double INVERSE_PHI = (Math.sqrt(5.0) - 1.0) / 2.0;
+
+  private final List<Board> boards;
+  private final ForkJoinPool pool;
+  private final int warmupIterations;
+  private final int iterations;
+
+  /**
+   * Default Constructor.
+   * @param boards the representative boards.
+   * @param pool the pool in which to enumerate the boards.
+   * @param warmupIterations the untimed enumerations of every board for every
+   *     cutoff tried.
+   * @param iterations the timed enumerations of every board for every cutoff
+   *     tried.
+   */
+  public CutoffTuner(List<Board> boards, ForkJoinPool pool, int warmupIterations, int iterations) {
+    if (boards.isEmpty() || iterations <= 0) {
+      throw new IllegalArgumentException("The boards and the iterations must be at least one");
+    }
+    this.boards = boards;
+    this.pool = pool;
+    this.warmupIterations = warmupIterations;
+    this.iterations = iterations;
+  }
+
+  /**
+   * Get the cutoff with the given base 10 logarithm, rounded to three
+   * significant digits.
+   * @param log10 the base 10 logarithm of the cutoff.
+   */
+  public static BigInteger cutoff(double log10) {
+    return new BigDecimal(Math.pow(10.0, log10)).round(new MathContext(3)).toBigInteger()
+        .max(BigInteger.ONE);
+  }
+
+  /**
+   * Measure the mean time to enumerate all the boards with a cutoff.
+   * @param log10 the base 10 logarithm of the cutoff.
+   * @return the time in nanoseconds.
+   */
+  public double measure(double log10) {
+    SplitPolicy policy = SplitPolicy.fixed(cutoff(log10));
+    double total = 0.0;
+    for (Board board : boards) {
+      total += BenchmarkRun.run("", () -> ParallelSolver.enumerate(board, null, null, policy, pool),
+          warmupIterations, iterations, 0).getLatencies().getMean();
+    }
+    return total;
+  }
+
+  /**
+   * Search the cutoff that enumerates the boards in the least time.
+   * @param low the base 10 logarithm of the smallest cutoff to try.
+   * @param high the base 10 logarithm of the largest cutoff to try.
+   * @param tolerance the width of the interval at which to stop.
+   * @param progress consumer of a line for each cutoff tried, can be null.
+   * @return the base 10 logarithm of the best cutoff tried.
+   */
+  public double tune(double low, double high, double tolerance, Consumer<String> progress) {
+    if (!(low < high) || !(tolerance > 0)) {
+      throw new IllegalArgumentException("The interval and the tolerance must not be empty");
+    }
+    double a = low;
+    double b = high;
+    double c = b - INVERSE_PHI * (b - a);
+    double d = a + INVERSE_PHI * (b - a);
+    double fc = evaluate(c, progress);
+    double fd = evaluate(d, progress);
+    while (b - a > tolerance) {
+      if (fc <= fd) {
+        b = d;
+        d = c;
+        fd = fc;
+        c = b - INVERSE_PHI * (b - a);
+        fc = evaluate(c, progress);
+      } else {
+        a = c;
+        c = d;
+        fc = fd;
+        d = a + INVERSE_PHI * (b - a);
+        fd = evaluate(d, progress);
+      }
+    }
+    return fc <= fd ? c : d;
+  }
+
+  /**
+   * Measure a cutoff and report it.
+   * @param log10 the base 10 logarithm of the cutoff.
+   * @param progress consumer of the report, can be null.
+   */
+  private double evaluate(double log10, Consumer<String> progress) {
+    double time = measure(log10);
+    if (progress != null) {
+      progress.accept(
+          String.format(Locale.ROOT, "Cutoff 1e%.2f: %.0fus%n", log10, time / 1000.0));
+    }
+    return time;
+  }
+}
@@ -0,0 +1,293 @@
+package sudoku;
+
+import com.beust.jcommander.JCommander;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Server that runs the app for the requests coming from a loopback socket, so
+ * that many runs share a single JVM whose solvers are already compiled.
+ *
+ * <p>A request is made of lines: the token of the daemon, then the working
+ * directory of the client, then the arguments of the app, one per line, then
+ * an empty line. The response is the output of the app followed by a last line
+ * holding its exit status, as {@code exit <status>}.
+ *
+ * <p>Any local user can connect to a loopback port, so the daemon writes a
+ * random token to a file that only its owner can read, at the path given by
+ * the {@code sudoku.daemon.token} system property or else at
+ * {@code .sudoku-solver/daemon.token} in the home of the user, and ignores the
+ * requests without it. Requests cannot write files either: the output file,
+ * the tuning and the sweep are refused. A client has a few seconds to send each
+ * line of its request, so that idle connections cannot hold all the handlers.
+ */
+public class Daemon implements AutoCloseable {
+  public static final int DEFAULT_PORT = 7878;
+  public static final String TOKEN_PROPERTY = "sudoku.daemon.token";
+
+  private static final int TOKEN_BYTES = 32;
+  private static final int REQUEST_TIMEOUT_MILLIS = 5000;
+
+  private final ServerSocket server;
+  private final ExecutorService handlers;
+  private final Path tokenFile;
+  private final byte[] token;
+  private final int requestTimeout;
+
+  /**
+   * Default Constructor.
+   * @param port the loopback port on which to listen, 0 to pick a free one.
+   * @param tokenFile the file in which to write the token of the requests.
+   */
+  public Daemon(int port, Path tokenFile) throws IOException {
+    this(port, tokenFile, REQUEST_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Default Constructor.
+   * @param port the loopback port on which to listen, 0 to pick a free one.
+   * @param tokenFile the file in which to write the token of the requests.
+   * @param requestTimeout the milliseconds a client has to send each line of
+   *     its request before the connection is closed.
+   */
+  Daemon(int port, Path tokenFile, int requestTimeout) throws IOException {
+    this.requestTimeout = requestTimeout;
+    server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+    // Written once the port is taken, not to replace the token of a running daemon.
+    try {
+      this.token = writeToken(tokenFile);
+    } catch (IOException | RuntimeException e) {
+      server.close();
+      throw e;
+    }
+    this.tokenFile = tokenFile;
+    handlers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+      Thread thread = new Thread(r, "daemon-request");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Get the path of the token file of this user.
+   */
+  public static Path getDefaultTokenPath() {
+    String path = System.getProperty(TOKEN_PROPERTY);
+    if (path != null && !path.isEmpty()) {
+      return Paths.get(path);
+    }
+    return Paths.get(System.getProperty("user.home"), ".sudoku-solver", "daemon.token");
+  }
+
+  /**
+   * Write a new random token to a file that only the owner can read and write.
+   * @param file the file of the token, replaced if it exists.
+   * @return the token, as written in the file.
+   */
+  private static byte[] writeToken(Path file) throws IOException {
+    boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null && !Files.isDirectory(parent)) {
+      if (posix) {
+        Files.createDirectories(parent, PosixFilePermissions.asFileAttribute(
+            PosixFilePermissions.fromString("rwx------")));
+      } else {
+        Files.createDirectories(parent);
+      }
+    }
+    // Created anew, so that nobody else can have it open or have linked it.
+    Files.deleteIfExists(file);
+    if (posix) {
+      Files.createFile(file, PosixFilePermissions.asFileAttribute(
+          PosixFilePermissions.fromString("rw-------")));
+    } else {
+      Files.createFile(file);
+    }
+
+    byte[] random = new byte[TOKEN_BYTES];
+    new SecureRandom().nextBytes(random);
+    StringBuilder hex = new StringBuilder(2 * TOKEN_BYTES);
+    for (byte b : random) {
+      hex.append(String.format("%02x", b));
+    }
+    byte[] token = hex.toString().getBytes(StandardCharsets.US_ASCII);
+    Files.write(file, token, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    return token;
+  }
+
+  /**
+   * Get the file holding the token of the requests.
+   */
+  public Path getTokenFile() {
+    return tokenFile;
+  }
+
+  /**
+   * Get the port on which the daemon listens.
+   */
+  public int getPort() {
+    return server.getLocalPort();
+  }
+
+  /**
+   * Accept and run requests until the daemon is closed.
+   */
+  public void serve() throws IOException {
+    while (true) {
+      Socket socket;
+      try {
+        socket = server.accept();
+      } catch (SocketException e) {
+        if (server.isClosed()) {
+          return;
+        }
+        throw e;
+      }
+      handlers.execute(() -> handle(socket));
+    }
+  }
+
+  /**
+   * Stop accepting requests and remove the token file. The requests already
+   * accepted run to completion.
+   */
+  @Override
+  public void close() throws IOException {
+    server.close();
+    handlers.shutdown();
+    Files.deleteIfExists(tokenFile);
+  }
+
+  /**
+   * Read a request from a connection, run it and send back the response.
+   * @param socket the connection of the client.
+   */
+  private void handle(Socket socket) {
+    try (Socket client = socket) {
+      // Until the request is read, not to let a silent client hold the handler.
+      client.setSoTimeout(requestTimeout);
+      BufferedReader in = new BufferedReader(
+          new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+      Response response = new Response(new BufferedWriter(
+          new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8), 1 << 16));
+      String secret = in.readLine();
+      if (secret == null
+          || !MessageDigest.isEqual(token, secret.getBytes(StandardCharsets.UTF_8))) {
+        response.accept("Unauthorized request: the first line must hold the token of "
+            + tokenFile + "\n");
+        response.finish(4);
+        return;
+      }
+      String cwd = in.readLine();
+      if (cwd == null) {
+        return;
+      }
+      List<String> argv = new ArrayList<>();
+      String line;
+      while ((line = in.readLine()) != null && !line.isEmpty()) {
+        argv.add(line);
+      }
+      client.setSoTimeout(0);
+
+      int status = run(Paths.get(cwd), argv, response);
+      response.finish(status);
+    } catch (IOException | UncheckedIOException e) {
+      // The client went away, nobody is left to tell.
+    }
+  }
+
+  /**
+   * Run the app for a request.
+   * @param cwd the working directory of the client, against which the paths
+   *     of the request are resolved.
+   * @param argv the arguments of the app.
+   * @param out the app will call this when needs to send a message.
+   * @return the exit status of the app.
+   */
+  static int run(Path cwd, List<String> argv, Consumer<String> out) {
+    App.Args args = new App.Args();
+    try {
+      JCommander.newBuilder().addObject(args).build().parse(argv.toArray(new String[0]));
+    } catch (Exception e) {
+      out.accept(e.getMessage() + "\n");
+      return 3;
+    }
+    if (args.daemon || args.serve) {
+      out.accept("Illegal argument: The daemon can only run the app for a request\n");
+      return 2;
+    }
+    if (args.output != null || args.tune || args.sweep) {
+      out.accept("Illegal argument: The daemon cannot write files\n");
+      return 2;
+    }
+    if (args.format != null && !"text".equals(args.format)) {
+      out.accept("Illegal argument: The daemon can only print the solutions as text\n");
+      return 2;
+    }
+
+    List<String> filenames = new ArrayList<>();
+    for (String filename : args.filenames) {
+      filenames.add(cwd.resolve(filename).toString());
+    }
+    args.filenames = filenames;
+    return App.withProfile(args).run(out);
+  }
+
+  /**
+   * Output of the app sent to the client, followed by its exit status on a
+   * line of its own.
+   */
+  private static final class Response implements Consumer<String> {
+    private final Writer writer;
+    private boolean newline = true;
+
+    private Response(Writer writer) {
+      this.writer = writer;
+    }
+
+    @Override
+    public void accept(String message) {
+      if (message.isEmpty()) {
+        return;
+      }
+      try {
+        writer.write(message);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      newline = message.charAt(message.length() - 1) == '\n';
+    }
+
+    private void finish(int status) throws IOException {
+      if (!newline) {
+        writer.write('\n');
+      }
+      writer.write("exit " + status + "\n");
+      writer.flush();
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package sudoku;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class FirstSolutionSolver {
+  /**
+   * Default Constructor.
+   */
+  private FirstSolutionSolver() {}
+
+  /**
+   * Find a legal solution of the given board.
+   * @param board the board for which to find a solution.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(Board board) {
+    return solve(board, Heuristic.DEFAULT, 0L);
+  }
+
+  /**
+   * Find a legal solution of the given board.
+   * @param board the board for which to find a solution.
+   * @param heuristic the heuristic driving the search.
+   * @param seed the seed of the random choices made by the heuristic.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(Board board, Heuristic heuristic, long seed) {
+    return new Search(board, heuristic, new Random(seed), null).run(Long.MAX_VALUE);
+  }
+
+  /**
+   * Depth-first search that stops at the first solution, over an explicit stack
+   * having one level for each cell being guessed. Every cell set by a guess or
+   * by propagation is recorded on a trail, so that backtracking a level only
+   * has to empty the cells set since the level was entered.
+   */
+  static final class Search {
+    private final Board root;
+    private final Heuristic heuristic;
+    private final Random random;
+    private final AtomicBoolean cancelled;
+    private Board board;
+    private int[] trailRows;
+    private int[] trailCols;
+    private int trailSize;
+    private long nodes;
+    private boolean exhausted;
+
+    /**
+     * Default Constructor.
+     * @param root the board for which to find a solution, copied by the search.
+     * @param heuristic the heuristic driving the search.
+     * @param random the source of the random choices made by the heuristic.
+     * @param cancelled flag that stops the search once set, can be null.
+     */
+    Search(Board root, Heuristic heuristic, Random random, AtomicBoolean cancelled) {
+      this.root = new Board(root);
+      this.heuristic = heuristic;
+      this.random = random;
+      this.cancelled = cancelled;
+    }
+
+    /**
+     * Run the search from the root board.
+     * @param budget the number of guesses after which to give up.
+     * @return the first solution found, null if there is none or the search
+     *     was given up.
+     */
+    Solution run(long budget) {
+      board = new Board(root);
+      board.setSearchSpaceTracking(false);
+      int levels = board.getFillablesCount();
+      trailRows = new int[levels];
+      trailCols = new int[levels];
+      trailSize = 0;
+      exhausted = false;
+      long limit = budget > Long.MAX_VALUE - nodes ? Long.MAX_VALUE : nodes + budget;
+
+      if (heuristic.isPropagating() && !propagate()) {
+        return null;
+      }
+      if (board.isFull()) {
+        return new Solution(board);
+      }
+
+      int[] rows = new int[levels];
+      int[] cols = new int[levels];
+      int[] masks = new int[levels];
+      int[] marks = new int[levels];
+      int top = 0;
+      if (!push(rows, cols, masks, marks, top)) {
+        return null;
+      }
+      while (top >= 0) {
+        if (nodes >= limit) {
+          exhausted = true;
+          return null;
+        }
+        if (cancelled != null && cancelled.get()) {
+          return null;
+        }
+
+        undo(marks[top]);
+        int candidates = masks[top];
+        if (candidates == 0) {
+          top--;
+          continue;
+        }
+        int val = pickValue(candidates);
+        masks[top] = candidates ^ (1 << val);
+        set(rows[top], cols[top], val);
+        nodes++;
+
+        if (heuristic.isPropagating() && !propagate()) {
+          continue;
+        }
+        if (board.isFull()) {
+          return new Solution(board);
+        }
+        if (push(rows, cols, masks, marks, top + 1)) {
+          top++;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Get the number of guesses made so far by all the runs.
+     */
+    long getNodes() {
+      return nodes;
+    }
+
+    /**
+     * Check whether the last run was given up because of its budget.
+     */
+    boolean isExhausted() {
+      return exhausted;
+    }
+
+    /**
+     * Check whether the search was cancelled from the outside.
+     */
+    boolean isCancelled() {
+      return cancelled != null && cancelled.get();
+    }
+
+    /**
+     * Choose the next cell to guess and enter a new level of the stack.
+     * @return false if the chosen cell has no candidates left.
+     */
+    private boolean push(int[] rows, int[] cols, int[] masks, int[] marks, int level) {
+      int length = board.getBorderLength();
+      int best = -1;
+      int bestCount = Integer.MAX_VALUE;
+      int ties = 0;
+      for (int row = 0; row < length; row++) {
+        for (int col = 0; col < length; col++) {
+          if (board.getCell(row, col) != Board.EMPTY_CELL) {
+            continue;
+          }
+          int count = Integer.bitCount(board.getCandidatesMask(row, col));
+          if (count < bestCount) {
+            best = row * length + col;
+            bestCount = count;
+            ties = 1;
+          } else if (count == bestCount) {
+            ties++;
+            if (heuristic.getCellOrder() == Heuristic.CellOrder.LAST
+                || (heuristic.getCellOrder() == Heuristic.CellOrder.RANDOM
+                && random.nextInt(ties) == 0)) {
+              best = row * length + col;
+            }
+          }
+        }
+      }
+      if (bestCount == 0) {
+        return false;
+      }
+      rows[level] = best / length;
+      cols[level] = best % length;
+      masks[level] = board.getCandidatesMask(rows[level], cols[level]);
+      marks[level] = trailSize;
+      return true;
+    }
+
+    /**
+     * Pick the next candidate to try.
+     * @param candidates the bit-set of candidates still to try, not empty.
+     */
+    private int pickValue(int candidates) {
+      switch (heuristic.getValueOrder()) {
+        case ASCENDING:
+          return Integer.numberOfTrailingZeros(candidates);
+        case DESCENDING:
+          return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(candidates);
+        default:
+          for (int n = random.nextInt(Integer.bitCount(candidates)); n > 0; n--) {
+            candidates &= candidates - 1;
+          }
+          return Integer.numberOfTrailingZeros(candidates);
+      }
+    }
+
+    /**
+     * Fill the cells left with a single candidate until there are none.
+     * @return false if a cell is left with no candidates.
+     */
+    private boolean propagate() {
+      int length = board.getBorderLength();
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        for (int row = 0; row < length; row++) {
+          for (int col = 0; col < length; col++) {
+            if (board.getCell(row, col) != Board.EMPTY_CELL) {
+              continue;
+            }
+            int mask = board.getCandidatesMask(row, col);
+            if (mask == 0) {
+              return false;
+            }
+            if ((mask & (mask - 1)) == 0) {
+              set(row, col, Integer.numberOfTrailingZeros(mask));
+              changed = true;
+            }
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Set a cell and record it on the trail.
+     */
+    private void set(int row, int col, int val) {
+      board.setCell(row, col, val);
+      trailRows[trailSize] = row;
+      trailCols[trailSize] = col;
+      trailSize++;
+    }
+
+    /**
+     * Empty the cells set since the trail had the given size.
+     */
+    private void undo(int mark) {
+      while (trailSize > mark) {
+        trailSize--;
+        board.setCell(trailRows[trailSize], trailCols[trailSize], Board.EMPTY_CELL);
+      }
+    }
+  }
+}
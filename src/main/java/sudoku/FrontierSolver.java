@@ -0,0 +1,165 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class FrontierSolver {
+  private static final int DEFAULT_FRONTIER_PER_WORKER = 64;
+
+  /**
+   * Default Constructor.
+   */
+  private FrontierSolver() {}
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   */
+  public static BigInteger enumerate(Board board) {
+    return enumerate(board, Integer.MAX_VALUE, 0, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   *
+   * <p>The board is expanded breadth-first, one level at a time, until the
+   * given depth is reached or the frontier holds at least the given number of
+   * boards. The boards of the frontier are stored one after the other in a
+   * single array, one byte per cell, and each of them is then enumerated by
+   * the sequential solver in a parallel stream whose counts are summed by a
+   * single reduction.
+   *
+   * @param board the board for which to enumerate all the solutions.
+   * @param maxDepth the maximum number of levels to expand.
+   * @param maxSize the number of boards after which to stop the expansion, 0 to
+   *     use a multiple of the number of workers.
+   * @param pool the pool in which to run the stream, null to use the common pool.
+   */
+  public static BigInteger enumerate(Board board, int maxDepth, int maxSize, ForkJoinPool pool) {
+    if (maxDepth < 0 || maxSize < 0) {
+      throw new IllegalArgumentException("The frontier depth and size must be non-negative");
+    }
+    if (maxSize == 0) {
+      int parallelism = pool == null
+          ? ForkJoinPool.getCommonPoolParallelism() + 1 : pool.getParallelism();
+      maxSize = parallelism * DEFAULT_FRONTIER_PER_WORKER;
+    }
+
+    Frontier frontier = new Frontier(board);
+    for (int depth = 0; depth < maxDepth && frontier.size < maxSize; depth++) {
+      Frontier next = frontier.expand();
+      if (next == null) {
+        break;
+      }
+      frontier = next;
+    }
+
+    Frontier leaves = frontier;
+    IntStream stream = IntStream.range(0, leaves.size).parallel();
+    if (pool == null) {
+      return count(stream, leaves);
+    }
+    try {
+      return pool.submit(() -> count(stream, leaves)).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while enumerating the frontier", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Enumerate sequentially each board of the frontier and sum the counts.
+   * @param stream the stream of the indexes of the boards.
+   * @param frontier the frontier to enumerate.
+   */
+  private static BigInteger count(IntStream stream, Frontier frontier) {
+    return stream
+        .mapToObj(i -> SequentialSolver.enumerate(frontier.get(i)))
+        .reduce(BigInteger.ZERO, BigInteger::add);
+  }
+
+  private static final class Frontier {
+    private final int boardLength;
+    private final int cellCount;
+    private byte[] cells;
+    private int size;
+
+    /**
+     * Frontier made of a single board.
+     * @param board the root of the search.
+     */
+    private Frontier(Board board) {
+      this(board.getBorderLength(), 1);
+      board.writeCells(cells, 0);
+      size = 1;
+    }
+
+    /**
+     * Empty frontier.
+     * @param boardLength the width and height of the boards.
+     * @param capacity the number of boards that fit before growing.
+     */
+    private Frontier(int boardLength, int capacity) {
+      this.boardLength = boardLength;
+      this.cellCount = boardLength * boardLength;
+      this.cells = new byte[Math.max(capacity, 1) * cellCount];
+    }
+
+    /**
+     * Decode a board of the frontier.
+     * @param index the index of the board.
+     */
+    private Board get(int index) {
+      return new Board(cells, index * cellCount, boardLength);
+    }
+
+    /**
+     * Append a board to the frontier.
+     * @param board the board to append.
+     */
+    private void add(Board board) {
+      if ((size + 1) * cellCount > cells.length) {
+        cells = Arrays.copyOf(cells, cells.length * 2);
+      }
+      board.writeCells(cells, size * cellCount);
+      size++;
+    }
+
+    /**
+     * Replace every board with one board for each candidate of its empty cell
+     * having the fewest candidates. Complete boards are kept as they are, while
+     * boards with no way to be completed are dropped.
+     * @return the next level, null if no board could be expanded.
+     */
+    private Frontier expand() {
+      Frontier next = new Frontier(boardLength, size * 2);
+      boolean expanded = false;
+      for (int i = 0; i < size; i++) {
+        Board board = get(i);
+        if (board.isFull()) {
+          next.add(board);
+          continue;
+        }
+        expanded = true;
+        Board.Cell cell = board.getBestNextToFill();
+        int mask = board.getCandidatesMask(cell.row, cell.col);
+        for (int val = 1; val <= boardLength; val++) {
+          if ((mask & (1 << val)) == 0) {
+            continue;
+          }
+          board.setCell(cell.row, cell.col, val);
+          next.add(board);
+        }
+      }
+      return expanded ? next : null;
+    }
+  }
+}
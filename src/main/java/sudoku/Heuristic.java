@@ -0,0 +1,86 @@
+package sudoku;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class Heuristic {
+  /**
+   * Which cell to guess among the empty cells having the fewest candidates.
+   */
+  public enum CellOrder {
+    FIRST, LAST, RANDOM
+  }
+
+  /**
+   * In which order to try the candidates of the cell being guessed.
+   */
+  public enum ValueOrder {
+    ASCENDING, DESCENDING, RANDOM
+  }
+
+  public static final Heuristic DEFAULT =
+      new Heuristic(CellOrder.FIRST, ValueOrder.DESCENDING, true);
+
+  private static final List<Heuristic> PORTFOLIO = Collections.unmodifiableList(Arrays.asList(
+      new Heuristic(CellOrder.FIRST, ValueOrder.DESCENDING, false),
+      new Heuristic(CellOrder.FIRST, ValueOrder.ASCENDING, true),
+      new Heuristic(CellOrder.LAST, ValueOrder.DESCENDING, true),
+      new Heuristic(CellOrder.RANDOM, ValueOrder.RANDOM, true)
+  ));
+
+  private final CellOrder cellOrder;
+  private final ValueOrder valueOrder;
+  private final boolean propagate;
+
+  /**
+   * Default Constructor.
+   * @param cellOrder how to break the ties between the cells with fewest candidates.
+   * @param valueOrder the order in which to try the candidates.
+   * @param propagate whether to fill the cells left with a single candidate
+   *     after each guess.
+   */
+  public Heuristic(CellOrder cellOrder, ValueOrder valueOrder, boolean propagate) {
+    if (cellOrder == null || valueOrder == null) {
+      throw new IllegalArgumentException("The cell and value orders must be specified");
+    }
+    this.cellOrder = cellOrder;
+    this.valueOrder = valueOrder;
+    this.propagate = propagate;
+  }
+
+  /**
+   * Get the heuristics raced by default by the portfolio solver, which differ
+   * enough from each other to rarely be unlucky on the same puzzle.
+   */
+  public static List<Heuristic> portfolio() {
+    return PORTFOLIO;
+  }
+
+  /**
+   * Get how the ties between the cells with fewest candidates are broken.
+   */
+  public CellOrder getCellOrder() {
+    return cellOrder;
+  }
+
+  /**
+   * Get the order in which the candidates are tried.
+   */
+  public ValueOrder getValueOrder() {
+    return valueOrder;
+  }
+
+  /**
+   * Check whether the cells left with a single candidate are filled after each guess.
+   */
+  public boolean isPropagating() {
+    return propagate;
+  }
+
+  @Override
+  public String toString() {
+    return cellOrder.name().toLowerCase() + "/" + valueOrder.name().toLowerCase()
+        + (propagate ? "/propagate" : "");
+  }
+}
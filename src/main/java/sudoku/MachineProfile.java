@@ -0,0 +1,123 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Tuned parameters of the solvers for a machine, kept in a small properties
+ * file written by the cutoff tuner of the app.
+ *
+ * <p>The file is looked up at the path given by the {@code sudoku.profile}
+ * system property, or else at {@code .sudoku-solver/profile.properties} in
+ * the home of the user. Only the app loads it, for its command line: the
+ * solvers themselves keep their built-in defaults. A profile tuned with a
+ * different number of workers is ignored, since the best cutoff depends on it.
+ */
+public final class MachineProfile {
+  public static final String PATH_PROPERTY = "sudoku.profile";
+
+  private final BigInteger cutoff;
+  private final int cores;
+
+  /**
+   * Default Constructor.
+   * @param cutoff the sequential cutoff of the fork/join engine.
+   * @param cores the number of workers the cutoff was tuned with.
+   */
+  public MachineProfile(BigInteger cutoff, int cores) {
+    if (cutoff == null || cutoff.signum() != 1 || cores <= 0) {
+      throw new IllegalArgumentException("The cutoff and the cores must be positive");
+    }
+    this.cutoff = cutoff;
+    this.cores = cores;
+  }
+
+  /**
+   * Get the path of the profile of this machine.
+   */
+  public static Path getDefaultPath() {
+    String path = System.getProperty(PATH_PROPERTY);
+    if (path != null && !path.isEmpty()) {
+      return Paths.get(path);
+    }
+    return Paths.get(System.getProperty("user.home"), ".sudoku-solver", "profile.properties");
+  }
+
+  /**
+   * Load the profile of this machine.
+   * @param parallelism the number of workers that will use the profile.
+   * @return the profile, null if there is none, if it cannot be read or if
+   *     it was tuned with a different number of workers.
+   */
+  public static MachineProfile loadDefault(int parallelism) {
+    try {
+      MachineProfile profile = load(getDefaultPath());
+      if (profile == null || profile.cores != parallelism) {
+        return null;
+      }
+      return profile;
+    } catch (IOException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Load a profile.
+   * @param file the file of the profile.
+   * @return the profile, null if the file does not exist.
+   * @throws IllegalArgumentException if the file is not a valid profile.
+   */
+  public static MachineProfile load(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    }
+    try {
+      return new MachineProfile(new BigInteger(properties.getProperty("cutoff", "")),
+          Integer.parseInt(properties.getProperty("cores", "")));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a machine profile: " + file);
+    }
+  }
+
+  /**
+   * Store the profile, creating the missing directories.
+   * @param file the file of the profile.
+   */
+  public void store(Path file) throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("cutoff", cutoff.toString());
+    properties.setProperty("cores", Integer.toString(cores));
+    properties.setProperty("java.version", System.getProperty("java.version"));
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (Writer writer = Files.newBufferedWriter(file)) {
+      properties.store(writer, "Machine profile of the sudoku solver");
+    }
+  }
+
+  /**
+   * Get the sequential cutoff of the fork/join engine.
+   */
+  public BigInteger getCutoff() {
+    return cutoff;
+  }
+
+  /**
+   * Get the number of workers the profile was tuned with.
+   */
+  public int getCores() {
+    return cores;
+  }
+}
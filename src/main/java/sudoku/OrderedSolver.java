@@ -0,0 +1,420 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import sudoku.util.StripedCounter;
+
+public class OrderedSolver {
+  private static final int WINDOW_PER_WORKER = 4;
+  private static final int MAX_BUFFERED_SOLUTIONS = 1024;
+
+  /**
+   * Default Constructor.
+   */
+  private OrderedSolver() {}
+
+  /**
+   * Enumerate all the legal solutions of the given board in depth-first order.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called, one at a time, for each solution in order.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Solution> onSolution) {
+    return enumerate(board, onSolution, null, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board in depth-first order.
+   *
+   * <p>The subtrees that the policy does not split are produced one at a time,
+   * as workers ask for them, by a depth-first walk over the boards that it
+   * splits, trying the highest candidate first as {@link SequentialSolver}
+   * does. The solutions thus come in the order of the sequential search,
+   * whatever the policy and the number of workers.
+   * Workers enumerate the subtrees sequentially: the solutions of the oldest
+   * subtree still running go straight to the callback, while the ones of the
+   * others are buffered until it completes. Workers stop when their buffer is
+   * full or when they get too far ahead of the oldest subtree, so only a
+   * window of subtrees, and the path of the walk, is kept in memory. If the
+   * callback or a search throws, the other workers stop at their next
+   * solution or subtree and the first exception is thrown by this method.
+   *
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called, one at a time, for each solution in order.
+   * @param policy the policy deciding when to split, null to use the default.
+   * @param pool the pool in which to run all the tasks, null to use the caller
+   *     thread and the common pool.
+   */
+  public static BigInteger enumerate(
+      Board board, Consumer<Solution> onSolution, SplitPolicy policy, ForkJoinPool pool) {
+    return enumerate(board, onSolution, null, policy, pool);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board in depth-first order.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called, one at a time, for each solution in order.
+   * @param stats the statistics to fill during the search, can be null.
+   * @param policy the policy deciding when to split, null to use the default.
+   * @param pool the pool in which to run all the tasks, null to use the caller
+   *     thread and the common pool.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Solution> onSolution,
+      SearchStats stats, SplitPolicy policy, ForkJoinPool pool) {
+    SearchStats.PerThread perThread = stats == null ? null : new SearchStats.PerThread();
+    if (policy == null) {
+      policy = ParallelSolver.getDefaultPolicy();
+    }
+    int parallelism = pool == null
+        ? ForkJoinPool.getCommonPoolParallelism() + 1 : pool.getParallelism();
+    Expansion expansion = new Expansion(board, policy, stats == null ? null : new SearchStats());
+    Merger merger = new Merger(expansion, onSolution, parallelism * WINDOW_PER_WORKER);
+
+    List<Worker> workers = new ArrayList<>();
+    for (int i = 0; i < parallelism; i++) {
+      workers.add(new Worker(merger, perThread));
+    }
+    if (pool == null) {
+      ForkJoinTask.invokeAll(workers);
+    } else {
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(workers);
+        }
+      });
+    }
+    Throwable failure = merger.failure;
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    if (failure != null) {
+      throw new IllegalStateException(failure);
+    }
+    if (perThread != null) {
+      stats.merge(expansion.stats);
+      perThread.mergeInto(stats);
+    }
+    return merger.counter.get();
+  }
+
+  private static final class Subtree {
+    private final Board board;
+    private final int depth;
+    private int index;
+    private Subtree next;
+    private List<Solution> buffer = new ArrayList<>();
+    private boolean live;
+    private boolean done;
+
+    private Subtree(Board board, int depth) {
+      this.board = board;
+      this.depth = depth;
+    }
+  }
+
+  /**
+   * Cell being split by the walk, with the candidates still to try.
+   */
+  private static final class Branch {
+    private final Board board;
+    private final Board.Cell cell;
+    private final int mask;
+    private final int depth;
+    private int val;
+
+    private Branch(Board board, int depth) {
+      this.board = board;
+      this.cell = board.getBestNextToFill();
+      this.mask = board.getCandidatesMask(cell.row, cell.col);
+      this.depth = depth;
+      this.val = board.getBorderLength() + 1;
+    }
+
+    /**
+     * Get the next candidate to try, from the highest one.
+     * @return the candidate, 0 if all of them were tried.
+     */
+    private int nextValue() {
+      while (--val > 0) {
+        if ((mask & (1 << val)) != 0) {
+          return val;
+        }
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Depth-first walk over the boards that the policy splits, producing the
+   * subtrees that it does not split. Only the boards of the current path are
+   * kept, one for each cell being split.
+   */
+  private static final class Expansion {
+    private final SplitPolicy policy;
+    private final SearchStats stats;
+    private final ArrayDeque<Branch> path = new ArrayDeque<>();
+    private Board root;
+
+    private Expansion(Board board, SplitPolicy policy, SearchStats stats) {
+      this.policy = policy;
+      this.stats = stats;
+      this.root = new Board(board);
+    }
+
+    /**
+     * Walk to the next subtree that the policy does not split.
+     * @return the subtree, null if there are no more.
+     */
+    private Subtree next() {
+      if (root != null) {
+        Subtree subtree = visit(root, 0);
+        root = null;
+        if (subtree != null) {
+          return subtree;
+        }
+      }
+      while (!path.isEmpty()) {
+        Branch branch = path.peek();
+        int val = branch.nextValue();
+        if (val == 0) {
+          path.pop();
+          continue;
+        }
+        Board child = new Board(branch.board);
+        child.setCell(branch.cell.row, branch.cell.col, val);
+        Subtree subtree = visit(child, branch.depth + 1);
+        if (subtree != null) {
+          return subtree;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Either make a subtree of a board, or split it on the path of the walk.
+     * @param board the board reached by the walk, owned by the walk.
+     * @param depth the number of cells filled by the walk so far.
+     * @return the subtree, null if the board was split or has no solution.
+     */
+    private Subtree visit(Board board, int depth) {
+      if (board.isFull()) {
+        return new Subtree(board, depth);
+      }
+      double space = board.getLog2SearchSpace();
+      if (space == Double.NEGATIVE_INFINITY) {
+        if (stats != null) {
+          stats.visit(depth, 0);
+        }
+        return null;
+      }
+      if (!policy.shouldSplit(space, depth)) {
+        if (stats != null) {
+          stats.sequential();
+        }
+        return new Subtree(board, depth);
+      }
+      Branch branch = new Branch(board, depth);
+      if (stats != null) {
+        stats.visit(depth, board.getCandidatesCount(branch.cell.row, branch.cell.col));
+      }
+      path.push(branch);
+      return null;
+    }
+  }
+
+  /**
+   * Keeps track of the oldest subtree still running, whose solutions can be
+   * delivered as soon as they are found. When it completes, the buffers of the
+   * following subtrees are flushed until one that is still running is found,
+   * which becomes the new oldest. The subtrees taken are linked in order, and
+   * the walk producing them, the links and the window are guarded by a lock.
+   */
+  private static final class Merger {
+    private final Expansion expansion;
+    private final Consumer<Solution> onSolution;
+    private final int window;
+    private final StripedCounter counter = new StripedCounter();
+    private final Object lock = new Object();
+    private int taken;
+    private int head;
+    private Subtree oldest;
+    private Subtree last;
+    private boolean nextLive = true;
+    private volatile Throwable failure;
+
+    private Merger(Expansion expansion, Consumer<Solution> onSolution, int window) {
+      this.expansion = expansion;
+      this.onSolution = onSolution;
+      this.window = window;
+    }
+
+    /**
+     * Take the next subtree to enumerate, waiting if it is too far from the
+     * oldest one still running.
+     * @return the subtree, null if there are no more or if a worker failed.
+     */
+    private Subtree take() throws InterruptedException {
+      synchronized (lock) {
+        while (failure == null && taken >= head + window) {
+          lock.wait();
+        }
+        if (failure != null) {
+          return null;
+        }
+        Subtree subtree = expansion.next();
+        if (subtree == null) {
+          return null;
+        }
+        subtree.index = taken++;
+        if (last != null) {
+          last.next = subtree;
+        }
+        last = subtree;
+        if (nextLive) {
+          subtree.live = true;
+          oldest = subtree;
+          nextLive = false;
+        }
+        return subtree;
+      }
+    }
+
+    /**
+     * Deliver or buffer a solution found in a subtree.
+     * @param subtree the subtree in which the solution was found.
+     * @param board the complete board.
+     */
+    private void emit(Subtree subtree, Board board) throws InterruptedException {
+      Solution solution = new Solution(board);
+      synchronized (subtree) {
+        while (failure == null && !subtree.live
+            && subtree.buffer.size() >= MAX_BUFFERED_SOLUTIONS) {
+          subtree.wait();
+        }
+        if (failure != null) {
+          throw new CancellationException("Another worker failed");
+        } else if (subtree.live) {
+          onSolution.accept(solution);
+        } else {
+          subtree.buffer.add(solution);
+        }
+      }
+    }
+
+    /**
+     * Mark a subtree as completed and, if it was the oldest, move ahead.
+     * @param subtree the subtree that completed.
+     */
+    private void complete(Subtree subtree) {
+      boolean live;
+      synchronized (subtree) {
+        subtree.done = true;
+        live = subtree.live;
+      }
+      if (!live) {
+        return;
+      }
+
+      Subtree current = subtree;
+      boolean done = true;
+      while (done) {
+        Subtree following;
+        synchronized (lock) {
+          following = current.next;
+          if (following == null) {
+            // Not taken yet, the next subtree taken will be the oldest.
+            nextLive = true;
+            oldest = null;
+            head = Math.max(head, current.index + 1);
+            lock.notifyAll();
+            return;
+          }
+        }
+        synchronized (following) {
+          for (Solution solution : following.buffer) {
+            onSolution.accept(solution);
+          }
+          following.buffer = null;
+          following.live = true;
+          done = following.done;
+          following.notifyAll();
+        }
+        current = following;
+      }
+      synchronized (lock) {
+        oldest = current;
+        head = Math.max(head, current.index);
+        lock.notifyAll();
+      }
+    }
+
+    /**
+     * Record the failure of a worker and wake up all the others, so that they
+     * stop instead of waiting for a subtree that will never complete.
+     * @param e the exception that stopped the worker.
+     */
+    private void fail(Throwable e) {
+      List<Subtree> running = new ArrayList<>();
+      synchronized (lock) {
+        if (failure == null) {
+          failure = e;
+        }
+        lock.notifyAll();
+        for (Subtree subtree = oldest; subtree != null; subtree = subtree.next) {
+          running.add(subtree);
+        }
+      }
+      for (Subtree subtree : running) {
+        synchronized (subtree) {
+          subtree.notifyAll();
+        }
+      }
+    }
+  }
+
+  private static final class Worker extends RecursiveAction {
+    private final Merger merger;
+    private final SearchStats.PerThread stats;
+
+    private Worker(Merger merger, SearchStats.PerThread stats) {
+      this.merger = merger;
+      this.stats = stats;
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        SearchStats local = stats == null ? null : stats.get();
+        Subtree subtree;
+        while ((subtree = merger.take()) != null) {
+          Subtree current = subtree;
+          merger.counter.add(SequentialSolver.enumerate(current.board, board -> {
+            try {
+              merger.emit(current, board);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new IllegalStateException("Interrupted while buffering a solution", e);
+            }
+          }, local, current.depth));
+          merger.complete(current);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        merger.fail(new IllegalStateException("Interrupted while waiting for a subtree", e));
+      } catch (Throwable e) {
+        merger.fail(e);
+      }
+    }
+  }
+}
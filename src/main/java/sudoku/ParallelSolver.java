@@ -2,10 +2,14 @@ package sudoku;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
 
-import sudoku.util.BigIntSum;
+import sudoku.jfr.SequentialLeafEvent;
+import sudoku.jfr.SubtreeTaskEvent;
+import sudoku.util.StripedCounter;
+import sudoku.util.UInt128;
 
 public class ParallelSolver {
   private static BigInteger SEARCH_SPACE_CUTOFF =
@@ -17,7 +21,7 @@ public class ParallelSolver {
   private ParallelSolver() {}
 
   /**
-   * Configure the sequential cutoff for the solver.
+   * Configure the sequential cutoff used when no split policy is given.
    * @param cutoff the sequential cutoff for the search space.
    */
   public static void setSequentialCutoff(BigInteger cutoff) {
@@ -27,6 +31,13 @@ public class ParallelSolver {
     SEARCH_SPACE_CUTOFF = cutoff;
   }
 
+  /**
+   * Get the policy used when no split policy is given.
+   */
+  public static SplitPolicy getDefaultPolicy() {
+    return SplitPolicy.fixed(SEARCH_SPACE_CUTOFF);
+  }
+
   /**
    * Enumerate all the legal solutions of the given board.
    * @param board the board for which to enumerate all the solutions.
@@ -41,13 +52,190 @@ public class ParallelSolver {
    * @param onSolution callback called each time a solution is found.
    */
   public static BigInteger enumerate(Board board, Consumer<Board> onSolution) {
-    return new SubtreeTask(board, onSolution).compute().get();
+    return enumerate(board, onSolution, null, null, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Board> onSolution, SearchStats stats) {
+    return enumerate(board, onSolution, stats, null, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   * @param policy the policy deciding when to split, null to use the default.
+   */
+  public static BigInteger enumerate(
+      Board board, Consumer<Board> onSolution, SearchStats stats, SplitPolicy policy) {
+    return enumerate(board, onSolution, stats, policy, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param pool the pool in which to run all the tasks.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Board> onSolution, ForkJoinPool pool) {
+    return enumerate(board, onSolution, null, null, pool);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board in a dedicated pool.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param parallelism the number of workers of the pool.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Board> onSolution, int parallelism) {
+    return enumerate(board, onSolution, null, new Config().parallelism(parallelism));
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board in a dedicated pool.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   * @param config the configuration of the pool and of the split policy.
+   */
+  public static BigInteger enumerate(
+      Board board, Consumer<Board> onSolution, SearchStats stats, Config config) {
+    ForkJoinPool pool = config.newPool();
+    try {
+      return enumerate(board, onSolution, stats, config.getPolicy(), pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   * @param policy the policy deciding when to split, null to use the default.
+   * @param pool the pool in which to run all the tasks, null to run the root
+   *     task in the caller thread and fork the others in the common pool.
+   */
+  public static BigInteger enumerate(
+      Board board, Consumer<Board> onSolution, SearchStats stats, SplitPolicy policy,
+      ForkJoinPool pool) {
+    SearchStats.PerThread perThread = stats == null ? null : new SearchStats.PerThread();
+    if (policy == null) {
+      policy = getDefaultPolicy();
+    }
+    int parallelism = pool == null
+        ? ForkJoinPool.getCommonPoolParallelism() + 1 : pool.getParallelism();
+    StripedCounter counter = new StripedCounter(parallelism);
+    SubtreeTask task = new SubtreeTask(board, onSolution, perThread, policy, counter);
+    if (pool == null) {
+      task.compute();
+    } else {
+      pool.invoke(task);
+    }
+    if (perThread != null) {
+      perThread.mergeInto(stats);
+    }
+    return counter.get();
+  }
+
+  public static class Config {
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory =
+        ForkJoinPool.defaultForkJoinWorkerThreadFactory;
+    private boolean asyncMode = false;
+    private SplitPolicy policy = null;
+
+    /**
+     * Default Constructor.
+     */
+    public Config() {}
+
+    /**
+     * Set the number of workers of the pool.
+     * @param parallelism the number of workers.
+     */
+    public Config parallelism(int parallelism) {
+      if (parallelism <= 0) {
+        throw new IllegalArgumentException("The parallelism must be positive");
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Set the factory used to create the workers of the pool.
+     * @param threadFactory the factory for the workers.
+     */
+    public Config threadFactory(ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory) {
+      this.threadFactory = threadFactory;
+      return this;
+    }
+
+    /**
+     * Set whether the workers process forked tasks in FIFO order.
+     * @param asyncMode true for FIFO, false for LIFO.
+     */
+    public Config asyncMode(boolean asyncMode) {
+      this.asyncMode = asyncMode;
+      return this;
+    }
+
+    /**
+     * Set the policy deciding when to split. A stateful policy keeps its state
+     * across the enumerations that share this configuration.
+     * @param policy the split policy, null to use the default.
+     */
+    public Config policy(SplitPolicy policy) {
+      this.policy = policy;
+      return this;
+    }
+
+    /**
+     * Split while the search space is larger than a fixed cutoff.
+     * @param cutoff the sequential cutoff for the search space.
+     */
+    public Config cutoff(BigInteger cutoff) {
+      return policy(SplitPolicy.fixed(cutoff));
+    }
+
+    /**
+     * Get the number of workers of the pool.
+     */
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    /**
+     * Get the policy deciding when to split.
+     */
+    public SplitPolicy getPolicy() {
+      return policy;
+    }
+
+    /**
+     * Create a new pool with this configuration. The caller has to shut it down.
+     */
+    public ForkJoinPool newPool() {
+      return new ForkJoinPool(parallelism, threadFactory, null, asyncMode);
+    }
   }
 
-  public static class SubtreeTask extends RecursiveTask<BigIntSum> {
+  public static class SubtreeTask extends RecursiveTask<UInt128> {
     private Board board;
     private Consumer<Board> onSolution;
+    private SearchStats.PerThread stats;
+    private SplitPolicy policy;
+    private StripedCounter counter;
     private StackElement move;
+    private int depth;
+    private Thread forker;
 
     private class StackElement {
       private final int row;
@@ -67,9 +255,28 @@ public class ParallelSolver {
      * @param onSolution callback called each time a solution is found.
      */
     public SubtreeTask(Board board, Consumer<Board> onSolution) {
+      this(board, onSolution, null, getDefaultPolicy(), null);
+    }
+
+    /**
+     * Entry point of computation for the backtracking.
+     * @param board the board for which to enumerate all the solutions.
+     * @param onSolution callback called each time a solution is found.
+     * @param stats the per-thread statistics to fill during the search, can be null.
+     * @param policy the policy deciding when to split.
+     * @param counter the counter in which to add the solutions found, if null
+     *     each task returns the count of its subtree instead.
+     */
+    SubtreeTask(
+        Board board, Consumer<Board> onSolution, SearchStats.PerThread stats, SplitPolicy policy,
+        StripedCounter counter) {
       this.board = new Board(board);
       this.move = null;
       this.onSolution = onSolution;
+      this.stats = stats;
+      this.policy = policy;
+      this.counter = counter;
+      this.depth = 0;
     }
 
     /**
@@ -82,48 +289,147 @@ public class ParallelSolver {
       this.board = new Board(board);
       this.move = move;
       this.onSolution = onSolution;
+      this.policy = getDefaultPolicy();
+    }
+
+    /**
+     * Single branch of computation for the backtracking.
+     * @param parent the task that generated this branch.
+     * @param move the next move to apply.
+     */
+    private SubtreeTask(SubtreeTask parent, StackElement move) {
+      this.board = new Board(parent.board);
+      this.move = move;
+      this.onSolution = parent.onSolution;
+      this.stats = parent.stats;
+      this.policy = parent.policy;
+      this.counter = parent.counter;
+      this.depth = parent.depth + 1;
+      this.forker = Thread.currentThread();
     }
 
     @Override
-    public BigIntSum compute() {
+    public UInt128 compute() {
+      SubtreeTaskEvent event = new SubtreeTaskEvent();
+      event.begin();
       if (move != null) {
         board = new Board(board);
         board.setCell(move.row, move.col, move.val);
       }
 
+      SearchStats local = stats == null ? null : stats.get();
       if (board.isFull()) {
+        if (local != null) {
+          local.solution(depth);
+        }
         if (onSolution != null) {
           onSolution.accept(board);
         }
-        return new BigIntSum(1);
+        record(event, 0.0, false, 1L);
+        return result(new UInt128(1L));
       }
 
-      BigInteger space = board.getSearchSpace();
-      if (space == BigInteger.ZERO) {
-        return new BigIntSum(0);
+      double space = board.getLog2SearchSpace();
+      if (space == Double.NEGATIVE_INFINITY) {
+        if (local != null) {
+          local.visit(depth, 0);
+        }
+        record(event, space, false, 1L);
+        return result(new UInt128());
       }
-      if (space.compareTo(SEARCH_SPACE_CUTOFF) <= 0) {
-        return new BigIntSum(SequentialSolver.enumerate(board, onSolution));
+      if (!policy.shouldSplit(space, depth)) {
+        if (local != null) {
+          local.sequential();
+        }
+        SequentialLeafEvent leaf = new SequentialLeafEvent();
+        // Count the nodes only for the events, when the caller does not.
+        SearchStats leafStats = local == null && (leaf.isEnabled() || event.isEnabled())
+            ? new SearchStats() : local;
+        long nodes = leafStats == null ? 0L : leafStats.getNodes();
+        long solutions = leafStats == null ? 0L : leafStats.getSolutions();
+        leaf.begin();
+        long start = System.nanoTime();
+        UInt128 count = new UInt128();
+        SequentialSolver.enumerate(board, onSolution, leafStats, depth, count);
+        policy.onSequential(space, System.nanoTime() - start);
+        leaf.end();
+        if (leafStats != null) {
+          nodes = leafStats.getNodes() - nodes;
+          solutions = leafStats.getSolutions() - solutions;
+        }
+        if (leaf.shouldCommit()) {
+          leaf.depth = depth;
+          leaf.log2SearchSpace = space;
+          leaf.nodes = nodes;
+          leaf.solutions = solutions;
+          leaf.commit();
+        }
+        record(event, space, false, nodes);
+        return result(count);
       }
 
       ArrayList<SubtreeTask> tasks = new ArrayList<>();
       Board.Cell start = board.getBestNextToFill();
       board.getCandidates(start.row, start.col).forEach(nval -> {
         StackElement nmove = new StackElement(start.row, start.col, nval);
-        tasks.add(new SubtreeTask(board, onSolution, nmove));
+        tasks.add(new SubtreeTask(this, nmove));
       });
 
-      BigIntSum count = new BigIntSum(0);
+      if (local != null) {
+        local.visit(depth, tasks.size());
+        local.forked(Math.max(tasks.size() - 1, 0));
+      }
+
+      UInt128 count = counter == null ? new UInt128() : null;
+      for (int i = 1; i < tasks.size(); i++) {
+        tasks.get(i).fork();
+      }
+      record(event, space, true, 1L);
       if (tasks.size() > 0) {
-        for (int i = 1; i < tasks.size(); i++) {
-          tasks.get(i).fork();
+        UInt128 first = tasks.get(0).compute();
+        if (count != null) {
+          count.merge(first);
         }
-        count.add(tasks.get(0).compute());
         for (int i = 1; i < tasks.size(); i++) {
-          count.add(tasks.get(i).join());
+          UInt128 other = tasks.get(i).join();
+          if (count != null) {
+            count.merge(other);
+          }
         }
       }
       return count;
     }
+
+    /**
+     * Commit the event of this task, if it is enabled.
+     * @param event the event started with the task.
+     * @param space the base 2 logarithm of the search space of the board.
+     * @param split whether the task forked subtasks.
+     * @param nodes the boards visited by the task itself.
+     */
+    private void record(SubtreeTaskEvent event, double space, boolean split, long nodes) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.depth = depth;
+        event.log2SearchSpace = space;
+        event.stolen = forker != null && forker != Thread.currentThread();
+        event.split = split;
+        event.nodes = nodes;
+        event.commit();
+      }
+    }
+
+    /**
+     * Publish the count of a subtree enumerated by this task.
+     * @param count the number of solutions found.
+     * @return the count to return from the task, null if added to the counter.
+     */
+    private UInt128 result(UInt128 count) {
+      if (counter != null) {
+        counter.add(count);
+        return null;
+      }
+      return count;
+    }
   }
 }
@@ -0,0 +1,84 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PortfolioSolver {
+  /**
+   * Default Constructor.
+   */
+  private PortfolioSolver() {}
+
+  /**
+   * Find a legal solution of the given board racing the default heuristics.
+   * @param board the board for which to find a solution.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(Board board) {
+    return solve(board, Heuristic.portfolio(), 0L, null);
+  }
+
+  /**
+   * Find a legal solution of the given board.
+   *
+   * <p>A search is started for each heuristic. As soon as one of them finds a
+   * solution, or proves that there is none, the others are cancelled and stop
+   * at their next guess. When the pool has fewer workers than heuristics the
+   * searches that do not fit wait for a worker, so the race is only fair with
+   * one worker for each heuristic.
+   *
+   * @param board the board for which to find a solution.
+   * @param heuristics the heuristics to race.
+   * @param seed the seed of the random choices, each heuristic using a different one.
+   * @param pool the pool in which to run the searches, null to use a new pool
+   *     with one worker for each heuristic.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(
+      Board board, List<Heuristic> heuristics, long seed, ForkJoinPool pool) {
+    if (heuristics.isEmpty()) {
+      throw new IllegalArgumentException("The portfolio must have at least one heuristic");
+    }
+
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<Solution> winner = new AtomicReference<>();
+    List<FirstSolutionSolver.Search> searches = new ArrayList<>();
+    for (int i = 0; i < heuristics.size(); i++) {
+      searches.add(new FirstSolutionSolver.Search(
+          board, heuristics.get(i), new Random(seed + i), done));
+    }
+
+    ForkJoinPool workers = pool == null ? new ForkJoinPool(heuristics.size()) : pool;
+    try {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (FirstSolutionSolver.Search search : searches) {
+        tasks.add(workers.submit(() -> {
+          if (done.get()) {
+            return;
+          }
+          Solution solution = search.run(Long.MAX_VALUE);
+          if (solution != null) {
+            winner.compareAndSet(null, solution);
+            done.set(true);
+          } else if (!search.isCancelled()) {
+            // The search space was exhausted: there is no solution to wait for.
+            done.set(true);
+          }
+        }));
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+    } finally {
+      if (pool == null) {
+        workers.shutdown();
+      }
+    }
+    return winner.get();
+  }
+}
@@ -0,0 +1,249 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class PuzzleReader {
+  private static final long MIN_CHUNK_SIZE = 1L << 20;
+  private static final long MAX_CHUNK_SIZE = 1L << 30;
+  private static final int CHUNKS_PER_WORKER = 4;
+  private static final int PROBE_SIZE = 4096;
+
+  /**
+   * Default Constructor.
+   */
+  private PuzzleReader() {}
+
+  /**
+   * Puzzles read from a file, stored one after the other in a single array
+   * with one byte per cell.
+   */
+  public static final class Puzzles {
+    private final int boardLength;
+    private final int cellCount;
+    private final byte[] cells;
+    private final int size;
+
+    private Puzzles(int boardLength, byte[] cells, int size) {
+      this.boardLength = boardLength;
+      this.cellCount = boardLength * boardLength;
+      this.cells = cells;
+      this.size = size;
+    }
+
+    /**
+     * Get the number of puzzles.
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Get the width and height of the boards.
+     */
+    public int getBorderLength() {
+      return boardLength;
+    }
+
+    /**
+     * Get the values of the cells of all the puzzles, 0 for empty cells.
+     */
+    public byte[] getCells() {
+      return cells;
+    }
+
+    /**
+     * Decode a puzzle.
+     * @param index the index of the puzzle in the file, ignoring empty lines.
+     */
+    public Board getBoard(int index) {
+      if (index < 0 || index >= size) {
+        throw new IllegalArgumentException("The puzzle is out of the file: " + index);
+      }
+      return new Board(cells, index * cellCount, boardLength);
+    }
+  }
+
+  /**
+   * Read a file having one puzzle per line, each made of all the cells of the
+   * board from left to right and top to bottom, with '.' or '0' for the empty
+   * cells. The size of the boards is given by the length of the first line.
+   *
+   * <p>The file is memory-mapped and split into chunks ending on a line
+   * boundary, which are decoded in parallel straight into packed arrays.
+   *
+   * @param file the file to read.
+   */
+  public static Puzzles read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      int boardLength = readBoardLength(channel, size);
+      if (boardLength == 0) {
+        return new Puzzles(1, new byte[0], 0);
+      }
+
+      int parallelism = Runtime.getRuntime().availableProcessors();
+      long chunkSize = Math.max(MIN_CHUNK_SIZE, size / (parallelism * CHUNKS_PER_WORKER) + 1);
+      chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+      List<Long> bounds = new ArrayList<>();
+      bounds.add(0L);
+      while (bounds.get(bounds.size() - 1) < size) {
+        long last = bounds.get(bounds.size() - 1);
+        bounds.add(findLineEnd(channel, Math.min(last + chunkSize, size), size));
+      }
+
+      Chunk[] chunks = IntStream.range(0, bounds.size() - 1).parallel()
+          .mapToObj(i -> decode(channel, bounds.get(i), bounds.get(i + 1), boardLength))
+          .toArray(Chunk[]::new);
+
+      int cellCount = boardLength * boardLength;
+      long total = 0L;
+      for (Chunk chunk : chunks) {
+        total += chunk.size;
+      }
+      if (total * cellCount > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Too many puzzles in " + file + ": " + total);
+      }
+      byte[] cells = new byte[(int) total * cellCount];
+      int offset = 0;
+      for (Chunk chunk : chunks) {
+        System.arraycopy(chunk.cells, 0, cells, offset, chunk.size * cellCount);
+        offset += chunk.size * cellCount;
+      }
+      return new Puzzles(boardLength, cells, (int) total);
+    }
+  }
+
+  private static final class Chunk {
+    private final byte[] cells;
+    private final int size;
+
+    private Chunk(byte[] cells, int size) {
+      this.cells = cells;
+      this.size = size;
+    }
+  }
+
+  /**
+   * Compute the width and height of the boards from the first non-empty line.
+   * @return the width and height of the boards, 0 if the file has no puzzles.
+   */
+  private static int readBoardLength(FileChannel channel, long size) throws IOException {
+    ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+    long position = 0L;
+    int length = 0;
+    while (position < size) {
+      probe.clear();
+      int read = channel.read(probe, position);
+      for (int i = 0; i < read; i++) {
+        byte c = probe.get(i);
+        if (c != '\n' && c != '\r') {
+          length++;
+        } else if (length > 0) {
+          return boardLength(length);
+        }
+      }
+      position += read;
+    }
+    return length > 0 ? boardLength(length) : 0;
+  }
+
+  /**
+   * Compute the width and height of a board from its number of cells.
+   * @param cellCount the number of cells of the board.
+   */
+  private static int boardLength(int cellCount) {
+    int boardLength = (int) Math.round(Math.sqrt(cellCount));
+    if (boardLength * boardLength != cellCount) {
+      throw new IllegalArgumentException("The board size must be a perfect square: " + cellCount);
+    }
+    return boardLength;
+  }
+
+  /**
+   * Find the position right after the end of the line containing a position.
+   * @param from the position from which to look for the end of the line.
+   * @param size the size of the file.
+   */
+  private static long findLineEnd(FileChannel channel, long from, long size) throws IOException {
+    ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+    long position = from;
+    while (position < size) {
+      probe.clear();
+      int read = channel.read(probe, position);
+      for (int i = 0; i < read; i++) {
+        if (probe.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  /**
+   * Decode the puzzles of a chunk of the file.
+   * @param start the position of the first byte of the chunk.
+   * @param end the position right after the last byte of the chunk.
+   * @param boardLength the width and height of the boards.
+   */
+  private static Chunk decode(FileChannel channel, long start, long end, int boardLength) {
+    MappedByteBuffer buffer;
+    try {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to map the file", e);
+    }
+
+    // Value of each byte, -1 for the bytes that are not a valid cell.
+    byte[] values = new byte[256];
+    Arrays.fill(values, (byte) -1);
+    values['.'] = Board.EMPTY_CELL;
+    for (int val = 0; val <= boardLength; val++) {
+      values['0' + val] = (byte) val;
+    }
+
+    int cellCount = boardLength * boardLength;
+    int limit = buffer.limit();
+    byte[] cells = new byte[limit / cellCount * cellCount];
+    int size = 0;
+    int offset = 0;
+    int pos = 0;
+    while (pos < limit) {
+      byte c = buffer.get(pos);
+      if (c == '\n' || c == '\r') {
+        pos++;
+        continue;
+      }
+      if (pos + cellCount > limit) {
+        throw new IllegalArgumentException("Truncated puzzle at byte " + (start + pos));
+      }
+      for (int i = 0; i < cellCount; i++, pos++) {
+        c = buffer.get(pos);
+        byte val = values[c & 0xFF];
+        if (val < 0) {
+          if (c == '\n' || c == '\r') {
+            throw new IllegalArgumentException("Truncated puzzle at byte " + (start + pos));
+          }
+          throw new IllegalArgumentException(
+            "Invalid character found: " + (char) c + " at byte " + (start + pos)
+          );
+        }
+        cells[offset++] = val;
+      }
+      if (pos < limit && buffer.get(pos) != '\n' && buffer.get(pos) != '\r') {
+        throw new IllegalArgumentException("Puzzle too long at byte " + (start + pos));
+      }
+      size++;
+    }
+    return new Chunk(cells, size);
+  }
+}
@@ -0,0 +1,202 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduler of the enumerations requested by many clients at once, which runs
+ * the cheapest ones first according to their {@link CostEstimate}.
+ *
+ * <p>The priority of a request is the base 2 logarithm of its estimated cost,
+ * lowered by one for every aging period spent waiting, so that an expensive
+ * request is not starved by a steady flow of cheap ones. Since every waiting
+ * request ages at the same rate, the order only depends on the cost and on
+ * the time at which each request arrived, and a plain priority queue keeps it.
+ *
+ * <p>A fixed set of workers takes the requests in that order. Boards that the
+ * split policy would not split are enumerated sequentially by the
+ * worker, the others by the fork/join engine on a pool whose parallelism is
+ * the number of cores any single request can take.
+ */
+public class RequestScheduler implements AutoCloseable {
+  public static final double DEFAULT_AGING_NANOS = 1e8;
+
+  private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>();
+  private final List<Thread> workers = new ArrayList<>();
+  private final BlockingQueue<ForkJoinPool> pools;
+  private final SplitPolicy policy;
+  private final int maxCores;
+  private final double agingNanos;
+  private final long origin = System.nanoTime();
+  private final AtomicLong arrivals = new AtomicLong();
+
+  /**
+   * Enumeration waiting for a worker.
+   */
+  private static final class Job implements Comparable<Job> {
+    private final Board board;
+    private final SearchStats stats;
+    private final double key;
+    private final long arrival;
+    private final CompletableFuture<BigInteger> result = new CompletableFuture<>();
+
+    private Job(Board board, SearchStats stats, double key, long arrival) {
+      this.board = board;
+      this.stats = stats;
+      this.key = key;
+      this.arrival = arrival;
+    }
+
+    @Override
+    public int compareTo(Job other) {
+      int order = Double.compare(key, other.key);
+      return order != 0 ? order : Long.compare(arrival, other.arrival);
+    }
+  }
+
+  /**
+   * Default Constructor.
+   * @param threads the number of requests run at the same time.
+   * @param maxCores the number of cores that a single request can take.
+   */
+  public RequestScheduler(int threads, int maxCores) {
+    this(threads, maxCores, DEFAULT_AGING_NANOS);
+  }
+
+  /**
+   * Default Constructor.
+   * @param threads the number of requests run at the same time.
+   * @param maxCores the number of cores that a single request can take.
+   * @param agingNanos the waiting time after which a request is given the
+   *     priority of one costing half as much.
+   */
+  public RequestScheduler(int threads, int maxCores, double agingNanos) {
+    this(threads, maxCores, agingNanos, ParallelSolver.getDefaultPolicy());
+  }
+
+  /**
+   * Default Constructor.
+   * @param threads the number of requests run at the same time.
+   * @param maxCores the number of cores that a single request can take.
+   * @param agingNanos the waiting time after which a request is given the
+   *     priority of one costing half as much.
+   * @param policy the policy deciding which requests are enumerated
+   *     sequentially and when the others split.
+   */
+  public RequestScheduler(int threads, int maxCores, double agingNanos, SplitPolicy policy) {
+    if (threads <= 0 || maxCores <= 0) {
+      throw new IllegalArgumentException("The workers and the cores must be positive");
+    }
+    if (!(agingNanos > 0)) {
+      throw new IllegalArgumentException("The aging period must be positive");
+    }
+    this.maxCores = maxCores;
+    this.agingNanos = agingNanos;
+    this.policy = policy;
+    this.pools = new ArrayBlockingQueue<>(threads);
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(this::work, "scheduler-worker-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+    }
+    workers.forEach(Thread::start);
+  }
+
+  /**
+   * Schedule the enumeration of all the legal solutions of a board.
+   * @param board the board for which to enumerate all the solutions, owned by
+   *     the scheduler until the enumeration completes.
+   * @return the number of solutions, once the enumeration completes.
+   */
+  public CompletableFuture<BigInteger> submit(Board board) {
+    return submit(board, CostEstimate.of(board), null);
+  }
+
+  /**
+   * Schedule the enumeration of all the legal solutions of a board.
+   * @param board the board for which to enumerate all the solutions, owned by
+   *     the scheduler until the enumeration completes.
+   * @param estimate the estimated cost of the enumeration.
+   * @param stats the statistics to fill during the search, can be null.
+   * @return the number of solutions, once the enumeration completes.
+   */
+  public CompletableFuture<BigInteger> submit(
+      Board board, CostEstimate estimate, SearchStats stats) {
+    double cost = Math.log(Math.max(estimate.getNodes(), 1.0)) / Math.log(2.0);
+    double key = cost + (System.nanoTime() - origin) / agingNanos;
+    Job job = new Job(board, stats, key, arrivals.getAndIncrement());
+    queue.add(job);
+    return job.result;
+  }
+
+  /**
+   * Get the number of requests waiting for a worker.
+   */
+  public int getQueued() {
+    return queue.size();
+  }
+
+  /**
+   * Stop the workers, failing the requests still waiting.
+   */
+  @Override
+  public void close() {
+    workers.forEach(Thread::interrupt);
+    List<Job> pending = new ArrayList<>();
+    queue.drainTo(pending);
+    for (Job job : pending) {
+      job.result.completeExceptionally(new IllegalStateException("The scheduler is closed"));
+    }
+    List<ForkJoinPool> idle = new ArrayList<>();
+    pools.drainTo(idle);
+    idle.forEach(ForkJoinPool::shutdown);
+  }
+
+  /**
+   * Body of the workers.
+   */
+  private void work() {
+    while (true) {
+      Job job;
+      try {
+        job = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      try {
+        job.result.complete(run(job));
+      } catch (RuntimeException e) {
+        job.result.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * Enumerate the solutions of a request.
+   * @param job the request.
+   */
+  private BigInteger run(Job job) {
+    double space = job.board.getLog2SearchSpace();
+    if (maxCores == 1 || space == Double.NEGATIVE_INFINITY || !policy.shouldSplit(space, 0)) {
+      return SequentialSolver.enumerate(job.board, null, job.stats);
+    }
+    ForkJoinPool pool = pools.poll();
+    if (pool == null) {
+      pool = new ParallelSolver.Config().parallelism(maxCores).newPool();
+    }
+    try {
+      return ParallelSolver.enumerate(job.board, null, job.stats, policy, pool);
+    } finally {
+      if (!pools.offer(pool)) {
+        pool.shutdown();
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package sudoku;
+
+import java.util.Random;
+
+public class RestartSolver {
+  public static final long DEFAULT_UNIT = 128L;
+
+  private static final Heuristic RANDOMIZED =
+      new Heuristic(Heuristic.CellOrder.RANDOM, Heuristic.ValueOrder.RANDOM, true);
+
+  /**
+   * Default Constructor.
+   */
+  private RestartSolver() {}
+
+  /**
+   * Find a legal solution of the given board.
+   * @param board the board for which to find a solution.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(Board board) {
+    return solve(board, DEFAULT_UNIT, 0L);
+  }
+
+  /**
+   * Find a legal solution of the given board.
+   * @param board the board for which to find a solution.
+   * @param unit the number of guesses of the shortest runs.
+   * @param seed the seed of the random choices, the same seed giving the same search.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(Board board, long unit, long seed) {
+    return solve(board, RANDOMIZED, unit, seed);
+  }
+
+  /**
+   * Find a legal solution of the given board.
+   *
+   * <p>The search is run again and again from the root, each time with a budget
+   * of guesses given by the Luby sequence (1, 1, 2, 1, 1, 2, 4, 1, ...) times
+   * the unit. A run that is unlucky with its random choices is thus abandoned
+   * early, while budgets still grow without bound, so the board is eventually
+   * either solved or proved to have no solution.
+   *
+   * @param board the board for which to find a solution.
+   * @param heuristic the heuristic driving each run, which should make random choices.
+   * @param unit the number of guesses of the shortest runs.
+   * @param seed the seed of the random choices, the same seed giving the same search.
+   * @return the first solution found, null if the board has none.
+   */
+  public static Solution solve(Board board, Heuristic heuristic, long unit, long seed) {
+    if (unit <= 0L) {
+      throw new IllegalArgumentException("The restart unit must be positive");
+    }
+
+    FirstSolutionSolver.Search search =
+        new FirstSolutionSolver.Search(board, heuristic, new Random(seed), null);
+    for (long run = 1L; ; run++) {
+      long factor = luby(run);
+      long budget = factor > Long.MAX_VALUE / unit ? Long.MAX_VALUE : factor * unit;
+      Solution solution = search.run(budget);
+      if (solution != null || !search.isExhausted()) {
+        return solution;
+      }
+    }
+  }
+
+  /**
+   * Compute an element of the Luby sequence.
+   * @param index the position of the element, starting from 1.
+   */
+  static long luby(long index) {
+    while (true) {
+      int k = Long.SIZE - Long.numberOfLeadingZeros(index);
+      if (index == (1L << k) - 1) {
+        return 1L << (k - 1);
+      }
+      index -= (1L << (k - 1)) - 1;
+    }
+  }
+}
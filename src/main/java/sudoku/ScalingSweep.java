@@ -0,0 +1,131 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import sudoku.util.LatencyHistogram;
+
+/**
+ * Sweep, inside a single JVM, of the speedup of the fork/join engine over the
+ * sequential one for a list of worker counts.
+ *
+ * <p>Each board is timed once with the sequential engine and then with the
+ * parallel engine on a dedicated pool for each worker count, so that the pools
+ * of the other counts do not compete for the cores. Each worker count gives a
+ * CSV line with the columns of the raw results of the benchmarking suite, the
+ * worker count in place of the cores, followed by the parallel efficiency and
+ * the Karp-Flatt serial fraction. Times are in microseconds.
+ */
+public class ScalingSweep {
+  public static final String CSV_HEADER = "N,os,core,cpu,test name,"
+      + "sequential iterations,sequential time,sequential stdev,sequential min,sequential max,"
+      + "parallel iterations,parallel time,parallel stdev,parallel min,parallel max,"
+      + "speedup,efficiency,serial fraction";
+
+  private final List<Integer> workers;
+  private final IntFunction<SplitPolicy> policies;
+  private final int warmupIterations;
+  private final int iterations;
+  private final long time;
+  private final String os = System.getProperty("os.name");
+  private final String cpu = cpuName();
+  private int lines;
+
+  /**
+   * Default Constructor.
+   * @param workers the worker counts of the parallel engine.
+   * @param policies the split policy to use for each worker count.
+   * @param warmupIterations the untimed iterations of every measurement.
+   * @param iterations the timed iterations of every measurement, 0 to only
+   *     stop on time.
+   * @param time the time in microseconds after which to stop every
+   *     measurement, 0 to only stop after the iterations.
+   */
+  public ScalingSweep(List<Integer> workers, IntFunction<SplitPolicy> policies,
+      int warmupIterations, int iterations, long time) {
+    if (workers.isEmpty() || workers.stream().anyMatch(count -> count <= 0)) {
+      throw new IllegalArgumentException("The worker counts must be positive");
+    }
+    this.workers = workers;
+    this.policies = policies;
+    this.warmupIterations = warmupIterations;
+    this.iterations = iterations;
+    this.time = time;
+  }
+
+  /**
+   * Sweep a board, writing a CSV line for each worker count.
+   * @param name the name of the board in the CSV.
+   * @param board the board to enumerate.
+   * @param out the consumer of the lines.
+   */
+  public void sweep(String name, Board board, Consumer<String> out) {
+    LatencyHistogram sequential = BenchmarkRun.run(name, () -> SequentialSolver.enumerate(board),
+        warmupIterations, iterations, time).getLatencies();
+    for (int count : workers) {
+      SplitPolicy policy = policies.apply(count);
+      ForkJoinPool pool = new ParallelSolver.Config().parallelism(count).newPool();
+      LatencyHistogram parallel;
+      try {
+        parallel = BenchmarkRun.run(name,
+            () -> ParallelSolver.enumerate(board, null, null, policy, pool),
+            warmupIterations, iterations, time).getLatencies();
+      } finally {
+        pool.shutdown();
+      }
+
+      double speedup = sequential.getMean() / parallel.getMean();
+      String fraction = count > 1
+          ? String.format(Locale.ROOT, "%.4f", serialFraction(speedup, count)) : "";
+      out.accept(lines++ + "," + os + "," + count + "," + cpu + "," + name
+          + columns(sequential) + columns(parallel)
+          + String.format(Locale.ROOT, ",%.3f,%.4f,", speedup, speedup / count) + fraction + "\n");
+    }
+  }
+
+  /**
+   * Get the Karp-Flatt metric, the serial fraction of the work that explains
+   * the speedup measured with the given number of workers.
+   * @param speedup the speedup measured.
+   * @param workers the number of workers, greater than 1.
+   */
+  public static double serialFraction(double speedup, int workers) {
+    if (workers <= 1) {
+      throw new IllegalArgumentException("The serial fraction needs more than one worker");
+    }
+    return (1.0 / speedup - 1.0 / workers) / (1.0 - 1.0 / workers);
+  }
+
+  /**
+   * Format the iterations and the mean, deviation, minimum and maximum
+   * latencies of a measurement as CSV columns.
+   * @param latencies the latencies, in nanoseconds.
+   */
+  private static String columns(LatencyHistogram latencies) {
+    return "," + latencies.getCount() + "," + Math.round(latencies.getMean() / 1000.0)
+        + "," + Math.round(latencies.getStdDev() / 1000.0)
+        + "," + Math.round(latencies.getMin() / 1000.0)
+        + "," + Math.round(latencies.getMax() / 1000.0);
+  }
+
+  /**
+   * Get the model of the processor, or its architecture when the model is
+   * not known.
+   */
+  private static String cpuName() {
+    try (Stream<String> lines = Files.lines(Paths.get("/proc/cpuinfo"))) {
+      return lines.filter(line -> line.startsWith("model name"))
+          .map(line -> line.substring(line.indexOf(':') + 1).trim().replace(",", " "))
+          .findFirst().orElse(System.getProperty("os.arch"));
+    } catch (IOException | RuntimeException e) {
+      return System.getProperty("os.arch");
+    }
+  }
+}
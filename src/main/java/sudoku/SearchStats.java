@@ -0,0 +1,196 @@
+package sudoku;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class SearchStats {
+  private long nodes;
+  private long deadEnds;
+  private long solutions;
+  private long forkedTasks;
+  private long sequentialTasks;
+  private int maxDepth;
+  private long[] depthNodes = new long[0];
+  private long[] depthChildren = new long[0];
+
+  /**
+   * Default Constructor.
+   */
+  public SearchStats() {}
+
+  /**
+   * Record the expansion of a board that is not complete.
+   * @param depth the number of cells filled by the search so far.
+   * @param children the number of candidates of the cell chosen to branch on.
+   */
+  void visit(int depth, int children) {
+    nodes++;
+    if (children == 0) {
+      deadEnds++;
+    }
+    if (depth >= depthNodes.length) {
+      int length = Math.max(depth + 1, depthNodes.length * 2);
+      depthNodes = Arrays.copyOf(depthNodes, length);
+      depthChildren = Arrays.copyOf(depthChildren, length);
+    }
+    depthNodes[depth]++;
+    depthChildren[depth] += children;
+    if (depth > maxDepth) {
+      maxDepth = depth;
+    }
+  }
+
+  /**
+   * Record a complete board.
+   * @param depth the number of cells filled by the search so far.
+   */
+  void solution(int depth) {
+    nodes++;
+    solutions++;
+    if (depth > maxDepth) {
+      maxDepth = depth;
+    }
+  }
+
+  /**
+   * Record the given number of forked tasks.
+   * @param count the number of tasks forked.
+   */
+  void forked(int count) {
+    forkedTasks += count;
+  }
+
+  /**
+   * Record a subtree handed to the sequential solver.
+   */
+  void sequential() {
+    sequentialTasks++;
+  }
+
+  /**
+   * Add the counters of another instance to this one.
+   * @param other another instance of this class to merge.
+   */
+  public SearchStats merge(SearchStats other) {
+    nodes += other.nodes;
+    deadEnds += other.deadEnds;
+    solutions += other.solutions;
+    forkedTasks += other.forkedTasks;
+    sequentialTasks += other.sequentialTasks;
+    maxDepth = Math.max(maxDepth, other.maxDepth);
+    if (other.depthNodes.length > depthNodes.length) {
+      depthNodes = Arrays.copyOf(depthNodes, other.depthNodes.length);
+      depthChildren = Arrays.copyOf(depthChildren, other.depthChildren.length);
+    }
+    for (int depth = 0; depth < other.depthNodes.length; depth++) {
+      depthNodes[depth] += other.depthNodes[depth];
+      depthChildren[depth] += other.depthChildren[depth];
+    }
+    return this;
+  }
+
+  /**
+   * Get the number of boards visited, complete ones included.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Get the number of visited boards having an empty cell without candidates.
+   */
+  public long getDeadEnds() {
+    return deadEnds;
+  }
+
+  /**
+   * Get the number of complete boards visited.
+   */
+  public long getSolutions() {
+    return solutions;
+  }
+
+  /**
+   * Get the number of tasks forked by the parallel solver.
+   */
+  public long getForkedTasks() {
+    return forkedTasks;
+  }
+
+  /**
+   * Get the number of subtrees handed to the sequential solver.
+   */
+  public long getSequentialTasks() {
+    return sequentialTasks;
+  }
+
+  /**
+   * Get the maximum number of cells filled by the search.
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Get the average number of candidates of the boards expanded at a depth.
+   * @param depth the number of cells filled by the search.
+   */
+  public double getBranchingFactor(int depth) {
+    if (depth < 0 || depth >= depthNodes.length || depthNodes[depth] == 0) {
+      return 0.0;
+    }
+    return depthChildren[depth] / (double) depthNodes[depth];
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder buffer = new StringBuilder();
+    buffer.append("Nodes: ").append(nodes).append('\n');
+    buffer.append("Dead ends: ").append(deadEnds).append('\n');
+    buffer.append("Solutions: ").append(solutions).append('\n');
+    buffer.append("Max depth: ").append(maxDepth).append('\n');
+    buffer.append("Forked tasks: ").append(forkedTasks).append('\n');
+    buffer.append("Sequential tasks: ").append(sequentialTasks).append('\n');
+    buffer.append("Branching factor:");
+    for (int depth = 0; depth < depthNodes.length; depth++) {
+      if (depthNodes[depth] == 0) {
+        continue;
+      }
+      buffer.append(' ').append(depth).append('=');
+      buffer.append(String.format("%.2f", getBranchingFactor(depth)));
+    }
+    buffer.append('\n');
+    return buffer.toString();
+  }
+
+  /**
+   * Collects a separate instance for each thread so that workers never share
+   * counters while searching.
+   */
+  static final class PerThread {
+    private final ConcurrentLinkedQueue<SearchStats> all = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<SearchStats> local = ThreadLocal.withInitial(() -> {
+      SearchStats stats = new SearchStats();
+      all.add(stats);
+      return stats;
+    });
+
+    /**
+     * Get the instance owned by the current thread.
+     */
+    SearchStats get() {
+      return local.get();
+    }
+
+    /**
+     * Merge the instances of every thread into the one given.
+     * Must be called only after all the workers have completed.
+     * @param target the instance in which to merge the counters.
+     */
+    void mergeInto(SearchStats target) {
+      for (SearchStats stats : all) {
+        target.merge(stats);
+      }
+    }
+  }
+}
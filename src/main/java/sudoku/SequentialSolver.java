@@ -4,7 +4,7 @@ import java.math.BigInteger;
 import java.util.Stack;
 import java.util.function.Consumer;
 
-import sudoku.util.BigIntSum;
+import sudoku.util.UInt128;
 
 public class SequentialSolver {
   /**
@@ -26,6 +26,43 @@ public class SequentialSolver {
    * @param onSolution callback called each time a solution is found.
    */
   public static BigInteger enumerate(Board board, Consumer<Board> onSolution) {
+    return enumerate(board, onSolution, null, 0);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Board> onSolution, SearchStats stats) {
+    return enumerate(board, onSolution, stats, 0);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   * @param depth the number of cells already filled by the caller's search.
+   */
+  static BigInteger enumerate(
+      Board board, Consumer<Board> onSolution, SearchStats stats, int depth) {
+    UInt128 count = new UInt128();
+    enumerate(board, onSolution, stats, depth, count);
+    return count.toBigInteger();
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param stats the statistics to fill during the search, can be null.
+   * @param depth the number of cells already filled by the caller's search.
+   * @param count the accumulator in which to add the solutions found.
+   */
+  static void enumerate(
+      Board board, Consumer<Board> onSolution, SearchStats stats, int depth, UInt128 count) {
     class StackElement {
       private final int row;
       private final int col;
@@ -39,24 +76,33 @@ public class SequentialSolver {
     }
 
     if (board == null) {
-      return BigInteger.ZERO;
+      return;
     }
 
     if (board.isFull()) {
+      if (stats != null) {
+        stats.solution(depth);
+      }
       if (onSolution != null) {
         onSolution.accept(board);
       }
-      return BigInteger.ONE;
+      count.inc();
+      return;
     }
 
-    BigIntSum count = new BigIntSum();
     Stack<StackElement> stack = new Stack<>();
+    int rootDepth = depth + board.getFillablesCount();
 
     Board.Cell start = board.getBestNextToFill();
+    if (stats != null) {
+      stats.visit(depth, board.getCandidatesCount(start.row, start.col));
+    }
     stack.push(new StackElement(start.row, start.col, Board.EMPTY_CELL));
     board.getCandidates(start.row, start.col)
          .forEach(nval -> stack.push(new StackElement(start.row, start.col, nval)));
 
+    // The search space is not needed here and tracking it would slow down every move.
+    boolean tracking = board.setSearchSpaceTracking(false);
     while (!stack.isEmpty()) {
       StackElement curr = stack.pop();
 
@@ -67,6 +113,9 @@ public class SequentialSolver {
       }
 
       if (board.isFull()) {
+        if (stats != null) {
+          stats.solution(rootDepth - board.getFillablesCount());
+        }
         if (onSolution != null) {
           onSolution.accept(board);
         }
@@ -75,12 +124,18 @@ public class SequentialSolver {
       }
 
       Board.Cell ncell = board.getBestNextToFill();
+      if (stats != null) {
+        stats.visit(
+            rootDepth - board.getFillablesCount(),
+            board.getCandidatesCount(ncell.row, ncell.col)
+        );
+      }
 
       stack.push(new StackElement(ncell.row, ncell.col, Board.EMPTY_CELL));
       board.getCandidates(ncell.row, ncell.col)
            .forEach(nval -> stack.push(new StackElement(ncell.row, ncell.col, nval)));
     }
 
-    return count.get();
+    board.setSearchSpaceTracking(tracking);
   }
 }
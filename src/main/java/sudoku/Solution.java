@@ -0,0 +1,78 @@
+package sudoku;
+
+public final class Solution {
+  private final int boardLength;
+  private final byte[] cells;
+
+  /**
+   * Snapshot Constructor.
+   * @param board the board whose cells have to be copied.
+   */
+  public Solution(Board board) {
+    boardLength = board.getBorderLength();
+    cells = new byte[board.getSize()];
+    board.writeCells(cells, 0);
+  }
+
+  /**
+   * Packed Constructor.
+   * @param cells the values of the cells, one byte per cell, owned by the solution.
+   *     (left to right, top to bottom)
+   * @param boardLength the width and height of the board.
+   */
+  Solution(byte[] cells, int boardLength) {
+    if (cells.length != boardLength * boardLength) {
+      throw new IllegalArgumentException("The board must be a square: " + cells.length);
+    }
+    this.boardLength = boardLength;
+    this.cells = cells;
+  }
+
+  /**
+   * Get the value of a cell.
+   * @param row a row of the board.
+   * @param col a column of the board.
+   */
+  public int getCell(int row, int col) {
+    if (row < 0 || row >= boardLength || col < 0 || col >= boardLength) {
+      throw new IllegalArgumentException(
+        "The cell specified is out of the board: " + row + ":" + col
+      );
+    }
+    return cells[row * boardLength + col];
+  }
+
+  /**
+   * Get the width and height of the table.
+   */
+  public int getBorderLength() {
+    return boardLength;
+  }
+
+  /**
+   * Copy the values of all the cells in a packed array, one byte per cell.
+   * (left to right, top to bottom)
+   * @param dst the array in which to copy the values.
+   * @param offset the position of the array at which to copy the first cell.
+   */
+  public void writeCells(byte[] dst, int offset) {
+    System.arraycopy(cells, 0, dst, offset, cells.length);
+  }
+
+  /**
+   * Return a string containing the sudoku board with _ to sign an empty cell.
+   */
+  @Override
+  public String toString() {
+    final int bufSize = ((boardLength + 1) * boardLength);
+    final StringBuilder buffer = new StringBuilder(bufSize);
+    for (int i = 0; i < cells.length; i++) {
+      int val = cells[i];
+      buffer.append(val == Board.EMPTY_CELL ? '_' : (char) (val + '0'));
+      if ((i + 1) % boardLength == 0) {
+        buffer.append('\n');
+      }
+    }
+    return buffer.toString();
+  }
+}
@@ -0,0 +1,95 @@
+package sudoku;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class SolutionDecoder {
+  /**
+   * Default Constructor.
+   */
+  private SolutionDecoder() {}
+
+  /**
+   * Decode the solutions of a file written by {@link SolutionWriter} in one of
+   * the binary formats.
+   * @param file the file to decode.
+   * @param onSolution callback called for each solution, in order.
+   * @return the number of solutions decoded.
+   */
+  public static long decode(Path file, Consumer<Solution> onSolution) throws IOException {
+    try (InputStream stream = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+      return decode(stream, onSolution);
+    }
+  }
+
+  /**
+   * Decode the solutions of a stream written by {@link SolutionWriter} in one
+   * of the binary formats.
+   * @param stream the stream to decode.
+   * @param onSolution callback called for each solution, in order.
+   * @return the number of solutions decoded.
+   */
+  public static long decode(InputStream stream, Consumer<Solution> onSolution)
+      throws IOException {
+    DataInputStream in = new DataInputStream(stream);
+    byte[] magic = new byte[SolutionWriter.MAGIC.length];
+    int read = in.read(magic);
+    if (read <= 0) {
+      return 0L;
+    }
+    if (read != magic.length || !Arrays.equals(magic, SolutionWriter.MAGIC)) {
+      throw new IllegalArgumentException("Not a binary solutions file");
+    }
+    int format = in.readUnsignedByte();
+    int boardLength = in.readUnsignedByte();
+    int cellCount = boardLength * boardLength;
+    if (format == SolutionWriter.Format.TEXT.ordinal()
+        || format >= SolutionWriter.Format.values().length) {
+      throw new IllegalArgumentException("Unknown binary format: " + format);
+    }
+    boolean packed = format == SolutionWriter.Format.PACKED.ordinal();
+
+    byte[] record = new byte[packed ? (cellCount + 1) / 2 : 2 * cellCount];
+    byte[] cells = new byte[cellCount];
+    long count = 0L;
+    while (true) {
+      int first = in.read();
+      if (first < 0) {
+        return count;
+      }
+      try {
+        if (packed) {
+          record[0] = (byte) first;
+          in.readFully(record, 1, record.length - 1);
+          for (int i = 0; i < cellCount; i++) {
+            int pair = record[i / 2];
+            cells[i] = (byte) (i % 2 == 0 ? (pair >> 4) & 0xF : pair & 0xF);
+          }
+        } else {
+          if (first > cellCount) {
+            throw new IllegalArgumentException("Corrupted solution: " + count);
+          }
+          in.readFully(record, 0, 2 * first);
+          for (int i = 0; i < first; i++) {
+            int position = record[2 * i] & 0xFF;
+            if (position >= cellCount) {
+              throw new IllegalArgumentException("Corrupted solution: " + count);
+            }
+            cells[position] = record[2 * i + 1];
+          }
+        }
+      } catch (EOFException e) {
+        throw new IllegalArgumentException("Truncated solution: " + count);
+      }
+      onSolution.accept(new Solution(Arrays.copyOf(cells, cellCount), boardLength));
+      count++;
+    }
+  }
+}
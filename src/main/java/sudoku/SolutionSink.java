@@ -0,0 +1,147 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Solution callback that can be shared by many workers. Every worker takes an
+ * immutable snapshot of the board and appends it to a batch of its own; full
+ * batches go through a bounded queue to a single thread that hands the
+ * solutions to the consumer, one at a time and in the order they were queued.
+ * Workers only block when the consumer is so slow that the queue fills up.
+ */
+public class SolutionSink implements Consumer<Board>, AutoCloseable {
+  private static final int DEFAULT_BATCH_SIZE = 256;
+  private static final int DEFAULT_QUEUE_CAPACITY = 64;
+  private static final List<Solution> END = new ArrayList<>();
+
+  private final Consumer<Solution> consumer;
+  private final int batchSize;
+  private final BlockingQueue<List<Solution>> queue;
+  private final ConcurrentLinkedQueue<Batch> batches = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<Batch> local = ThreadLocal.withInitial(() -> {
+    Batch batch = new Batch();
+    batches.add(batch);
+    return batch;
+  });
+  private final Thread drainer;
+  private volatile RuntimeException failure;
+  private boolean closed;
+
+  private final class Batch {
+    private List<Solution> solutions = new ArrayList<>();
+  }
+
+  /**
+   * Default Constructor.
+   * @param consumer callback called, from a single thread, for each solution.
+   */
+  public SolutionSink(Consumer<Solution> consumer) {
+    this(consumer, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Default Constructor.
+   * @param consumer callback called, from a single thread, for each solution.
+   * @param batchSize the number of solutions each worker buffers before queueing them.
+   * @param capacity the number of batches that can be queued at the same time.
+   */
+  public SolutionSink(Consumer<Solution> consumer, int batchSize, int capacity) {
+    if (batchSize <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("The batch size and the capacity must be positive");
+    }
+    this.consumer = consumer;
+    this.batchSize = batchSize;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.drainer = new Thread(this::drain, "solution-sink");
+    this.drainer.setDaemon(true);
+    this.drainer.start();
+  }
+
+  /**
+   * Take a snapshot of a solution and queue it for the consumer.
+   * @param board a complete board.
+   */
+  @Override
+  public void accept(Board board) {
+    Batch batch = local.get();
+    batch.solutions.add(new Solution(board));
+    if (batch.solutions.size() >= batchSize) {
+      put(batch.solutions);
+      batch.solutions = new ArrayList<>(batchSize);
+    }
+  }
+
+  /**
+   * Queue the solutions still buffered by the workers and wait for the consumer
+   * to receive all of them. Must be called once all the workers have completed.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (Batch batch : batches) {
+      if (!batch.solutions.isEmpty()) {
+        put(batch.solutions);
+        batch.solutions = new ArrayList<>();
+      }
+    }
+    put(END);
+    try {
+      drainer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while draining the solutions", e);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Queue a batch of solutions, waiting for space if needed.
+   * @param solutions the batch to queue.
+   */
+  private void put(List<Solution> solutions) {
+    try {
+      queue.put(solutions);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while queueing the solutions", e);
+    }
+  }
+
+  /**
+   * Body of the thread that hands the solutions to the consumer.
+   */
+  private void drain() {
+    while (true) {
+      List<Solution> solutions;
+      try {
+        solutions = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (solutions == END) {
+        return;
+      }
+      if (failure != null) {
+        continue;
+      }
+      try {
+        for (Solution solution : solutions) {
+          consumer.accept(solution);
+        }
+      } catch (RuntimeException e) {
+        // Keep taking batches so that the workers never block on a full queue.
+        failure = e;
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.Consumer;
+
+/**
+ * Solution callback that encodes the solutions straight into a large direct
+ * buffer, written to a channel only when full. Besides the same text printed
+ * by {@link Solution#toString}, two binary formats are available, both read
+ * back by {@link SolutionDecoder}: packed, with two cells per byte, and delta,
+ * with only the cells that differ from the previous solution.
+ */
+public class SolutionWriter implements Consumer<Solution>, AutoCloseable {
+  /**
+   * The encoding of the solutions.
+   */
+  public enum Format {
+    TEXT, PACKED, DELTA
+  }
+
+  static final byte[] MAGIC = {'S', 'D', 'K', 'S'};
+
+  // Values fit in a nibble and positions in a byte.
+  private static final int MAX_BINARY_LENGTH = 15;
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+  private final WritableByteChannel channel;
+  private final Format format;
+  private final ByteBuffer buffer;
+  private byte[] cells;
+  private byte[] previous;
+  private int boardLength;
+
+  /**
+   * Default Constructor.
+   * @param channel the channel in which to write, left open by the writer.
+   * @param format the encoding of the solutions.
+   */
+  public SolutionWriter(WritableByteChannel channel, Format format) {
+    this(channel, format, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Default Constructor.
+   * @param channel the channel in which to write, left open by the writer.
+   * @param format the encoding of the solutions.
+   * @param bufferSize the number of bytes buffered before writing to the channel.
+   */
+  public SolutionWriter(WritableByteChannel channel, Format format, int bufferSize) {
+    if (bufferSize < 1024) {
+      throw new IllegalArgumentException("The buffer size must be at least 1024 bytes");
+    }
+    this.channel = channel;
+    this.format = format;
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+  }
+
+  /**
+   * Encode a solution.
+   * @param solution a complete board.
+   */
+  @Override
+  public synchronized void accept(Solution solution) {
+    begin(solution.getBorderLength());
+    solution.writeCells(cells, 0);
+    encode();
+  }
+
+  /**
+   * Encode a solution.
+   * @param board a complete board.
+   */
+  public synchronized void write(Board board) {
+    begin(board.getBorderLength());
+    board.writeCells(cells, 0);
+    encode();
+  }
+
+  /**
+   * Write to the channel everything buffered so far.
+   */
+  public synchronized void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Write to the channel everything buffered so far. The channel is not closed.
+   */
+  @Override
+  public void close() {
+    flush();
+  }
+
+  /**
+   * Prepare the encoding of the first solution, writing the header of the
+   * binary formats.
+   * @param length the width and height of the board.
+   */
+  private void begin(int length) {
+    if (cells != null) {
+      if (length != boardLength) {
+        throw new IllegalArgumentException("All the solutions must have the same size");
+      }
+      return;
+    }
+    if (format != Format.TEXT && length > MAX_BINARY_LENGTH) {
+      throw new IllegalArgumentException(
+          "The binary formats only hold boards of up to " + MAX_BINARY_LENGTH + " values");
+    }
+    boardLength = length;
+    cells = new byte[length * length];
+    previous = new byte[length * length];
+    if (format != Format.TEXT) {
+      buffer.put(MAGIC).put((byte) format.ordinal()).put((byte) length);
+    }
+  }
+
+  /**
+   * Encode the cells of the current solution.
+   */
+  private void encode() {
+    if (buffer.remaining() < 2 * cells.length + boardLength + 2) {
+      flush();
+    }
+    switch (format) {
+      case TEXT:
+        for (int i = 0; i < cells.length; i++) {
+          buffer.put((byte) ('0' + cells[i]));
+          if ((i + 1) % boardLength == 0) {
+            buffer.put((byte) '\n');
+          }
+        }
+        buffer.put((byte) '\n');
+        break;
+      case PACKED:
+        for (int i = 0; i < cells.length; i += 2) {
+          int high = cells[i] << 4;
+          int low = i + 1 < cells.length ? cells[i + 1] : 0;
+          buffer.put((byte) (high | low));
+        }
+        break;
+      default:
+        int start = buffer.position();
+        buffer.put((byte) 0);
+        int changed = 0;
+        for (int i = 0; i < cells.length; i++) {
+          if (cells[i] != previous[i]) {
+            buffer.put((byte) i).put(cells[i]);
+            changed++;
+          }
+        }
+        buffer.put(start, (byte) changed);
+        byte[] swap = previous;
+        previous = cells;
+        cells = swap;
+        break;
+    }
+  }
+}
@@ -0,0 +1,490 @@
+package sudoku;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import sudoku.jfr.RequestPhaseEvent;
+
+/**
+ * HTTP service that answers questions about puzzles posted as the body of the
+ * request, on a single line as in the batch files. It exposes three endpoints:
+ * {@code /count} with the number of solutions, {@code /unique} with whether
+ * the puzzle has exactly one solution, and {@code /solve} with one of its
+ * solutions, on a single line, or {@code none}.
+ *
+ * <p>Boards that the split policy would not split are small: they are
+ * queued for a fixed set of workers, each of them taking the next queued
+ * request as soon as it is done with the previous one. The larger ones run on
+ * a fork/join pool with the same number of workers.
+ *
+ * <p>Before counting, the cost of the enumeration is estimated: requests above
+ * the budget are rejected, while the ones above the batch lane threshold go,
+ * one at a time, to a single worker of their own, so that they cannot starve
+ * the others. The remaining counts go through a {@link RequestScheduler},
+ * cheapest first, each one taking at most the given number of cores. The
+ * estimated and the actual number of visited boards are sent in the headers of
+ * the response and the most recent ones are listed by {@code /calibration}.
+ */
+public class SolverService implements AutoCloseable {
+  public static final int DEFAULT_PORT = 8080;
+  public static final double DEFAULT_BATCH_LANE_NODES = 1e7;
+  public static final double DEFAULT_MAX_NODES = 1e10;
+
+  private static final int MAX_REQUEST_BYTES = 1 << 16;
+  private static final int CALIBRATION_SIZE = 1024;
+  private static final Heuristic ASCENDING =
+      new Heuristic(Heuristic.CellOrder.FIRST, Heuristic.ValueOrder.ASCENDING, true);
+
+  static {
+    // The server writes the headers and the body of a response separately, so
+    // with Nagle's algorithm every small response waits for a delayed ACK.
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+  }
+
+  private final HttpServer server;
+  private final ExecutorService dispatcher;
+  private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+  private final BlockingQueue<Job> batchLane = new LinkedBlockingQueue<>();
+  private final List<Thread> workers = new ArrayList<>();
+  private final ForkJoinPool pool;
+  private final RequestScheduler scheduler;
+  private final SplitPolicy policy;
+  private final CountDownLatch closed = new CountDownLatch(1);
+  private final double batchLaneNodes;
+  private final double maxNodes;
+  private final String[] calibration = new String[CALIBRATION_SIZE];
+  private long calibrated;
+
+  /**
+   * Request waiting in the queue of the small boards.
+   */
+  private static final class Job {
+    private final Supplier<String> work;
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+
+    private Job(Supplier<String> work) {
+      this.work = work;
+    }
+
+    private void run() {
+      try {
+        result.complete(work.get());
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * Request whose estimated cost is above the budget.
+   */
+  private static final class OverBudgetException extends RuntimeException {
+    private OverBudgetException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Default Constructor.
+   * @param port the loopback port on which to listen, 0 to pick a free one.
+   * @param threads the number of workers for the small and for the large boards.
+   */
+  public SolverService(int port, int threads) throws IOException {
+    this(port, threads, Math.max(1, threads / 2), DEFAULT_BATCH_LANE_NODES, DEFAULT_MAX_NODES);
+  }
+
+  /**
+   * Default Constructor.
+   * @param port the loopback port on which to listen, 0 to pick a free one.
+   * @param threads the number of workers for the small and for the large boards.
+   * @param maxCores the number of cores that a single count can take.
+   * @param batchLaneNodes the estimated boards to visit above which a count
+   *     goes to the batch lane.
+   * @param maxNodes the estimated boards to visit above which a count is rejected.
+   */
+  public SolverService(
+      int port, int threads, int maxCores, double batchLaneNodes, double maxNodes)
+      throws IOException {
+    this(port, threads, maxCores, batchLaneNodes, maxNodes, ParallelSolver.getDefaultPolicy());
+  }
+
+  /**
+   * Default Constructor.
+   * @param port the loopback port on which to listen, 0 to pick a free one.
+   * @param threads the number of workers for the small and for the large boards.
+   * @param maxCores the number of cores that a single count can take.
+   * @param batchLaneNodes the estimated boards to visit above which a count
+   *     goes to the batch lane.
+   * @param maxNodes the estimated boards to visit above which a count is rejected.
+   * @param policy the policy deciding which boards are small and when the
+   *     large ones split.
+   */
+  public SolverService(int port, int threads, int maxCores, double batchLaneNodes,
+      double maxNodes, SplitPolicy policy) throws IOException {
+    if (threads <= 0 || maxCores <= 0) {
+      throw new IllegalArgumentException("The number of threads and cores must be positive");
+    }
+    if (!(batchLaneNodes > 0) || !(maxNodes > 0)) {
+      throw new IllegalArgumentException("The cost budgets must be positive");
+    }
+    this.batchLaneNodes = batchLaneNodes;
+    this.maxNodes = maxNodes;
+    this.policy = policy;
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    dispatcher = Executors.newCachedThreadPool(r -> {
+      Thread thread = new Thread(r, "service-http");
+      thread.setDaemon(true);
+      return thread;
+    });
+    pool = new ParallelSolver.Config().parallelism(threads).newPool();
+    scheduler = new RequestScheduler(threads, Math.min(maxCores, threads),
+        RequestScheduler.DEFAULT_AGING_NANOS, policy);
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(() -> work(queue), "service-worker-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+    }
+    Thread lane = new Thread(() -> work(batchLane), "service-batch-lane");
+    lane.setDaemon(true);
+    workers.add(lane);
+
+    server.setExecutor(dispatcher);
+    server.createContext("/count", exchange -> handle(exchange, this::count));
+    server.createContext("/unique", exchange -> handle(exchange, this::unique));
+    server.createContext("/solve", exchange -> handle(exchange, this::solve));
+    server.createContext("/calibration", this::calibration);
+    workers.forEach(Thread::start);
+    server.start();
+  }
+
+  /**
+   * Get the port on which the service listens.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Wait until the service is closed.
+   */
+  public void await() throws InterruptedException {
+    closed.await();
+  }
+
+  /**
+   * Stop the service, failing the requests still queued.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    workers.forEach(Thread::interrupt);
+    pool.shutdownNow();
+    scheduler.close();
+    List<Job> pending = new ArrayList<>();
+    queue.drainTo(pending);
+    batchLane.drainTo(pending);
+    for (Job job : pending) {
+      job.result.completeExceptionally(new IllegalStateException("The service is closed"));
+    }
+    dispatcher.shutdown();
+    closed.countDown();
+  }
+
+  /**
+   * Count the solutions of a board, if its estimated cost is within the budget.
+   * @param board the board for which to count the solutions.
+   * @param headers the headers of the response, in which to add the costs.
+   */
+  private String count(Board board, Headers headers) {
+    RequestPhaseEvent estimating = RequestPhaseEvent.start("/count", "estimate");
+    CostEstimate estimate = CostEstimate.of(board);
+    estimating.commit();
+    headers.set("X-Estimated-Nodes", String.format("%.0f", estimate.getNodes()));
+    if (estimate.getNodes() > maxNodes) {
+      throw new OverBudgetException("The estimated cost is over the budget: " + estimate);
+    }
+
+    SearchStats stats = new SearchStats();
+    String lane;
+    String count;
+    if (estimate.getNodes() > batchLaneNodes) {
+      lane = "batch";
+      count = enqueue(batchLane, () -> SequentialSolver.enumerate(board, null, stats).toString());
+    } else {
+      lane = "scheduled";
+      count = join(scheduler.submit(board, estimate, stats)).toString();
+    }
+    headers.set("X-Actual-Nodes", String.valueOf(stats.getNodes()));
+    headers.set("X-Lane", lane);
+    record(String.format("%.0f,%d,%s", estimate.getNodes(), stats.getNodes(), lane));
+    return count;
+  }
+
+  /**
+   * Check whether a board has exactly one solution.
+   * @param board the board to check.
+   * @param headers the headers of the response.
+   */
+  private String unique(Board board, Headers headers) {
+    if (isSmall(board)) {
+      return enqueue(queue, () -> String.valueOf(isUnique(board, null)));
+    }
+    return String.valueOf(isUnique(board, pool));
+  }
+
+  /**
+   * Find a solution of a board.
+   * @param board the board for which to find a solution.
+   * @param headers the headers of the response.
+   */
+  private String solve(Board board, Headers headers) {
+    if (isSmall(board)) {
+      return enqueue(queue, () -> format(FirstSolutionSolver.solve(board)));
+    }
+    return format(PortfolioSolver.solve(board, Heuristic.portfolio(), 0L, pool));
+  }
+
+  /**
+   * Check whether a board is cheap enough to be solved by a single worker.
+   * @param board the board to check.
+   */
+  private boolean isSmall(Board board) {
+    double space = board.getLog2SearchSpace();
+    return space == Double.NEGATIVE_INFINITY || !policy.shouldSplit(space, 0);
+  }
+
+  /**
+   * Check whether a board has exactly one solution.
+   *
+   * <p>The two searches choose the same cells on the same boards, so they walk
+   * the same tree, one trying the lowest candidates first and the other the
+   * highest ones. They find the same solution only if the tree has one.
+   *
+   * @param board the board to check.
+   * @param pool the pool in which to run the two searches, null to run them in
+   *     the caller thread.
+   */
+  static boolean isUnique(Board board, ForkJoinPool pool) {
+    Solution lowest;
+    Solution highest;
+    if (pool == null) {
+      lowest = FirstSolutionSolver.solve(board, ASCENDING, 0L);
+      highest = lowest == null ? null : FirstSolutionSolver.solve(board);
+    } else {
+      ForkJoinTask<Solution> low = pool.submit(
+          () -> FirstSolutionSolver.solve(board, ASCENDING, 0L));
+      highest = pool.submit(() -> FirstSolutionSolver.solve(board)).join();
+      lowest = low.join();
+    }
+    return lowest != null && lowest.toString().equals(highest.toString());
+  }
+
+  /**
+   * Queue some work for the workers of a lane and wait for it.
+   * @param lane the queue of the lane.
+   * @param work the work to do.
+   */
+  private static String enqueue(BlockingQueue<Job> lane, Supplier<String> work) {
+    Job job = new Job(work);
+    lane.add(job);
+    return join(job.result);
+  }
+
+  /**
+   * Wait for the result of some work.
+   * @param result the future result of the work.
+   */
+  private static <T> T join(CompletableFuture<T> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Body of the workers of a lane, which solve the queued requests one at a
+   * time, so that an idle worker always gets the next one.
+   * @param lane the queue of the lane.
+   */
+  private static void work(BlockingQueue<Job> lane) {
+    while (true) {
+      Job job;
+      try {
+        job = lane.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      job.run();
+    }
+  }
+
+  /**
+   * Remember the costs of a count for the calibration of the estimates.
+   * @param line the line of the calibration CSV.
+   */
+  private synchronized void record(String line) {
+    calibration[(int) (calibrated++ % CALIBRATION_SIZE)] = line;
+  }
+
+  /**
+   * List the estimated and actual costs of the most recent counts, as CSV.
+   * @param exchange the request and its response.
+   */
+  private void calibration(HttpExchange exchange) throws IOException {
+    StringBuilder csv = new StringBuilder("estimated,actual,lane");
+    synchronized (this) {
+      for (long i = Math.max(0, calibrated - CALIBRATION_SIZE); i < calibrated; i++) {
+        csv.append('\n').append(calibration[(int) (i % CALIBRATION_SIZE)]);
+      }
+    }
+    try {
+      respond(exchange, 200, csv.toString());
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Answer a request for one of the endpoints.
+   * @param exchange the request and its response.
+   * @param operation the operation of the endpoint.
+   */
+  private void handle(HttpExchange exchange, BiFunction<Board, Headers, String> operation)
+      throws IOException {
+    try {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        respond(exchange, 405, "Only POST is allowed");
+        return;
+      }
+      String puzzle = read(exchange.getRequestBody());
+      if (puzzle == null) {
+        respond(exchange, 413, "The puzzle is too large");
+        return;
+      }
+      String endpoint = exchange.getRequestURI().getPath();
+      String answer;
+      try {
+        RequestPhaseEvent parsing = RequestPhaseEvent.start(endpoint, "parse");
+        Board board = parse(puzzle);
+        parsing.commit();
+        RequestPhaseEvent answering = RequestPhaseEvent.start(endpoint, "answer");
+        answer = operation.apply(board, exchange.getResponseHeaders());
+        answering.commit();
+      } catch (OverBudgetException e) {
+        respond(exchange, 422, e.getMessage());
+        return;
+      } catch (IllegalArgumentException e) {
+        respond(exchange, 400, "Illegal argument: " + e.getMessage());
+        return;
+      } catch (IllegalStateException | RejectedExecutionException e) {
+        respond(exchange, 503, "The service is closed");
+        return;
+      } catch (RuntimeException e) {
+        respond(exchange, 500, "An unexpected error occurred: " + e);
+        return;
+      }
+      respond(exchange, 200, answer);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Read the body of a request.
+   * @param body the stream of the body.
+   * @return the body, null if it is too large.
+   */
+  private static String read(InputStream body) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = body.read(buffer)) >= 0) {
+      bytes.write(buffer, 0, read);
+      if (bytes.size() > MAX_REQUEST_BYTES) {
+        return null;
+      }
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Send the response of a request, as a single line of text.
+   * @param exchange the request and its response.
+   * @param status the HTTP status code.
+   * @param message the content of the line.
+   */
+  private static void respond(HttpExchange exchange, int status, String message)
+      throws IOException {
+    byte[] body = (message + "\n").getBytes(StandardCharsets.US_ASCII);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Convert a puzzle given on a single line to a board.
+   * @param puzzle the cells of the puzzle, left to right and top to bottom,
+   *     with '.' or '0' for the empty cells.
+   */
+  static Board parse(String puzzle) {
+    String cells = puzzle.trim();
+    int boardLength = (int) Math.round(Math.sqrt(cells.length()));
+    if (cells.isEmpty() || boardLength * boardLength != cells.length()) {
+      throw new IllegalArgumentException("The puzzle must have a square number of cells");
+    }
+    int[][] board = new int[boardLength][boardLength];
+    for (int i = 0; i < cells.length(); i++) {
+      char c = cells.charAt(i);
+      if (c == '.') {
+        continue;
+      }
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("Invalid character found: " + c);
+      }
+      board[i / boardLength][i % boardLength] = c - '0';
+    }
+    return new Board(board);
+  }
+
+  /**
+   * Convert a solution to a single line.
+   * @param solution the solution to convert, can be null.
+   */
+  private static String format(Solution solution) {
+    if (solution == null) {
+      return "none";
+    }
+    return solution.toString().replace("\n", "");
+  }
+}
@@ -0,0 +1,125 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public interface SplitPolicy {
+  /**
+   * Decide whether a subtree has to be split in parallel tasks or enumerated
+   * sequentially.
+   * @param log2Space the base 2 logarithm of the search space of the subtree.
+   * @param depth the number of cells filled by the parallel search so far.
+   */
+  boolean shouldSplit(double log2Space, int depth);
+
+  /**
+   * Called each time a subtree has been enumerated sequentially.
+   * @param log2Space the base 2 logarithm of the search space of the subtree.
+   * @param nanos the time spent to enumerate the subtree.
+   */
+  default void onSequential(double log2Space, long nanos) {}
+
+  /**
+   * Split while the search space is larger than a fixed cutoff.
+   * @param cutoff the sequential cutoff for the search space.
+   */
+  static SplitPolicy fixed(BigInteger cutoff) {
+    return new Fixed(cutoff);
+  }
+
+  /**
+   * Split according to the load of the pool and to the measured cost of the
+   * subtrees enumerated sequentially so far.
+   */
+  static SplitPolicy adaptive() {
+    return new Adaptive(ForkJoinPool.getCommonPoolParallelism());
+  }
+
+  /**
+   * Split according to the load of the pool and to the measured cost of the
+   * subtrees enumerated sequentially so far.
+   * @param parallelism the number of workers that will run the tasks.
+   */
+  static SplitPolicy adaptive(int parallelism) {
+    return new Adaptive(parallelism);
+  }
+
+  final class Fixed implements SplitPolicy {
+    private final double cutoffBits;
+
+    /**
+     * Default Constructor.
+     * @param cutoff the sequential cutoff for the search space.
+     */
+    public Fixed(BigInteger cutoff) {
+      if (cutoff == null || cutoff.signum() != 1) {
+        throw new IllegalArgumentException("The cutoff must be positive");
+      }
+      // Keep the 63 most significant bits, which a double represents well enough.
+      int shift = Math.max(cutoff.bitLength() - 63, 0);
+      this.cutoffBits = Math.log(cutoff.shiftRight(shift).doubleValue()) / Math.log(2) + shift;
+    }
+
+    @Override
+    public boolean shouldSplit(double log2Space, int depth) {
+      return log2Space > cutoffBits;
+    }
+  }
+
+  /**
+   * The grain, that is the search space below which a subtree is enumerated
+   * sequentially, is kept in log2 and nudged after every sequential subtree
+   * toward the size whose enumeration takes about {@code TARGET_NANOS}.
+   * Splitting is also skipped when the current worker already has queued tasks
+   * nobody stole, and forced near the root to feed every worker.
+   */
+  final class Adaptive implements SplitPolicy {
+    private static final long TARGET_NANOS = 500_000L;
+    private static final double LEARNING_RATE = 0.25;
+    private static final double MIN_GRAIN_BITS = 16.0;
+    private static final double MAX_GRAIN_BITS = 256.0;
+    private static final double INITIAL_GRAIN_BITS = 93.0; // log2(1e28)
+    private static final int MAX_SURPLUS_TASKS = 3;
+
+    private final int minDepth;
+    // Updates are not atomic: a lost update only slows down the convergence.
+    private volatile double grainBits = INITIAL_GRAIN_BITS;
+
+    /**
+     * Default Constructor.
+     * @param parallelism the number of workers that will run the tasks.
+     */
+    public Adaptive(int parallelism) {
+      minDepth = 32 - Integer.numberOfLeadingZeros(Math.max(parallelism, 1) - 1);
+    }
+
+    @Override
+    public boolean shouldSplit(double log2Space, int depth) {
+      if (log2Space <= MIN_GRAIN_BITS) {
+        return false;
+      }
+      if (depth < minDepth) {
+        return true;
+      }
+      if (ForkJoinTask.getSurplusQueuedTaskCount() > MAX_SURPLUS_TASKS) {
+        return false;
+      }
+      return log2Space > grainBits;
+    }
+
+    @Override
+    public void onSequential(double log2Space, long nanos) {
+      double error = Math.log(TARGET_NANOS / (double) Math.max(nanos, 1L)) / Math.log(2);
+      double grain = grainBits + LEARNING_RATE * error;
+      grainBits = Math.max(MIN_GRAIN_BITS, Math.min(MAX_GRAIN_BITS, grain));
+    }
+
+    /**
+     * Get the current grain in log2 of the search space.
+     */
+    public double getGrainBits() {
+      return grainBits;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package sudoku;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Warm-up of the solvers, which runs every path of the app on a few small
+ * boards, so that their classes are loaded and their hot loops compiled before
+ * the first board that counts is timed.
+ */
+public class Warmup {
+  private static final String[] PUZZLES = {
+    "8..2.3..6.5.7....9..4...1..79..5...4...8.6...1...7..95..3...2..5....7.6.4..6.9..1",
+    "..93....1.6..78...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2....74..",
+    "..93....1.6...8...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2.....4..",
+  };
+
+  /**
+   * Default Constructor.
+   */
+  private Warmup() {}
+
+  /**
+   * Run the solvers on the warm-up boards, one round after the other, until
+   * the given time has passed. At least one round is always run.
+   * @param millis the time to spend warming up, in milliseconds.
+   * @param pool the pool in which to run the parallel solvers, null to use
+   *     the common pool.
+   * @return the number of rounds run.
+   */
+  public static int run(long millis, ForkJoinPool pool) {
+    ForkJoinPool workers = pool == null ? ForkJoinPool.commonPool() : pool;
+    Board[] boards = new Board[PUZZLES.length];
+    for (int i = 0; i < PUZZLES.length; i++) {
+      boards[i] = SolverService.parse(PUZZLES[i]);
+    }
+
+    long deadline = System.nanoTime() + millis * 1000000L;
+    int rounds = 0;
+    do {
+      for (Board board : boards) {
+        round(board, workers);
+      }
+      rounds++;
+    } while (System.nanoTime() - deadline < 0);
+    return rounds;
+  }
+
+  /**
+   * Run every solver once on a board.
+   * @param board the board to solve, left unchanged.
+   * @param pool the pool in which to run the parallel solvers.
+   */
+  private static void round(Board board, ForkJoinPool pool) {
+    CostEstimate.of(board);
+    SequentialSolver.enumerate(new Board(board), null, new SearchStats());
+    ParallelSolver.enumerate(new Board(board), null, null, null, pool);
+    WorkStealingSolver.enumerate(new Board(board), null, pool);
+    FirstSolutionSolver.solve(new Board(board));
+    PortfolioSolver.solve(new Board(board), Heuristic.portfolio(), 0L, pool);
+    try (SolutionSink sink = new SolutionSink(solution -> solution.toString())) {
+      ParallelSolver.enumerate(new Board(board), sink, null, null, pool);
+    }
+  }
+}
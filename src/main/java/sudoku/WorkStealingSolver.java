@@ -0,0 +1,237 @@
+package sudoku;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import sudoku.util.StripedCounter;
+
+public class WorkStealingSolver {
+  private static final int POLL_INTERVAL = 32;
+
+  /**
+   * Default Constructor.
+   */
+  private WorkStealingSolver() {}
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   */
+  public static BigInteger enumerate(Board board) {
+    return enumerate(board, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Board> onSolution) {
+    return enumerate(board, onSolution, null);
+  }
+
+  /**
+   * Enumerate all the legal solutions of the given board.
+   * @param board the board for which to enumerate all the solutions.
+   * @param onSolution callback called each time a solution is found.
+   * @param pool the pool in which to run all the tasks, null to run them in the
+   *     common pool. The root task always runs in a worker of the pool, since
+   *     outside of one it could not tell whether the others lack work.
+   */
+  public static BigInteger enumerate(Board board, Consumer<Board> onSolution, ForkJoinPool pool) {
+    ForkJoinPool workers = pool == null ? ForkJoinPool.commonPool() : pool;
+    StripedCounter counter = new StripedCounter(workers.getParallelism());
+    SearchTask task = new SearchTask(board, onSolution, counter);
+    if (pool != null || Thread.currentThread() instanceof ForkJoinWorkerThread) {
+      workers.invoke(task);
+      return counter.get();
+    }
+    // Out of its workers, waiting for a task of the common pool can take it
+    // back and run it in the caller thread, so wait for a future instead.
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    workers.execute(() -> {
+      try {
+        task.invoke();
+        done.complete(null);
+      } catch (Throwable e) {
+        done.completeExceptionally(e);
+      }
+    });
+    try {
+      done.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+    return counter.get();
+  }
+
+  /**
+   * Depth-first search over an explicit stack that has one level for each cell
+   * being guessed, holding the candidates of the cell that are still to try.
+   * Every few nodes the task checks whether other workers could use some work
+   * and, if so, donates half of the candidates left on the lowest level that
+   * has any, since those are the roots of the largest unexplored subtrees.
+   * Solutions are added straight to a counter shared by all the tasks.
+   */
+  public static class SearchTask extends RecursiveAction {
+    private final Board board;
+    private final Consumer<Board> onSolution;
+    private final StripedCounter counter;
+    private final int row;
+    private final int col;
+    private final int mask;
+
+    /**
+     * Entry point of computation for the backtracking.
+     * @param board the board for which to enumerate all the solutions.
+     * @param onSolution callback called each time a solution is found.
+     * @param counter the counter in which to add the solutions found.
+     */
+    public SearchTask(Board board, Consumer<Board> onSolution, StripedCounter counter) {
+      this(new Board(board), onSolution, counter, -1, -1, 0);
+    }
+
+    /**
+     * Branch of computation that tries only some values for a cell.
+     * @param board the board for which to enumerate the solutions, owned by the task.
+     * @param onSolution callback called each time a solution is found.
+     * @param counter the counter in which to add the solutions found.
+     * @param row the row of the cell to guess.
+     * @param col the column of the cell to guess.
+     * @param mask the bit-set of values to try for the cell.
+     */
+    private SearchTask(
+        Board board, Consumer<Board> onSolution, StripedCounter counter, int row, int col,
+        int mask) {
+      this.board = board;
+      this.onSolution = onSolution;
+      this.counter = counter;
+      this.row = row;
+      this.col = col;
+      this.mask = mask;
+    }
+
+    @Override
+    public void compute() {
+      if (board.isFull()) {
+        if (onSolution != null) {
+          onSolution.accept(board);
+        }
+        counter.inc();
+        return;
+      }
+
+      board.setSearchSpaceTracking(false);
+      int levels = board.getFillablesCount();
+      int[] rows = new int[levels];
+      int[] cols = new int[levels];
+      int[] masks = new int[levels];
+      if (mask == 0) {
+        Board.Cell start = board.getBestNextToFill();
+        rows[0] = start.row;
+        cols[0] = start.col;
+        masks[0] = board.getCandidatesMask(start.row, start.col);
+      } else {
+        rows[0] = row;
+        cols[0] = col;
+        masks[0] = mask;
+      }
+
+      // Outside of a worker the surplus is always 0, and every poll would donate.
+      boolean inWorker = Thread.currentThread() instanceof ForkJoinWorkerThread;
+      ArrayList<SearchTask> donated = new ArrayList<>();
+      long count = 0L;
+      int poll = POLL_INTERVAL;
+      int top = 0;
+      while (top >= 0) {
+        int candidates = masks[top];
+        if (candidates == 0) {
+          board.setCell(rows[top], cols[top], Board.EMPTY_CELL);
+          top--;
+          continue;
+        }
+        int bit = candidates & -candidates;
+        masks[top] = candidates ^ bit;
+        board.setCell(rows[top], cols[top], Integer.numberOfTrailingZeros(bit));
+
+        if (board.isFull()) {
+          if (onSolution != null) {
+            onSolution.accept(board);
+          }
+          if (++count == Long.MAX_VALUE) {
+            counter.add(count);
+            count = 0L;
+          }
+          continue;
+        }
+
+        Board.Cell next = board.getBestNextToFill();
+        int nextMask = board.getCandidatesMask(next.row, next.col);
+        if (nextMask == 0) {
+          continue;
+        }
+        top++;
+        rows[top] = next.row;
+        cols[top] = next.col;
+        masks[top] = nextMask;
+
+        if (--poll == 0) {
+          poll = POLL_INTERVAL;
+          if (inWorker && ForkJoinTask.getSurplusQueuedTaskCount() <= 0) {
+            SearchTask task = donate(rows, cols, masks, top);
+            if (task != null) {
+              task.fork();
+              donated.add(task);
+            }
+          }
+        }
+      }
+
+      counter.add(count);
+      for (int i = donated.size() - 1; i >= 0; i--) {
+        donated.get(i).join();
+      }
+    }
+
+    /**
+     * Detach half of the candidates of the lowest level of the stack that still
+     * has some to try.
+     * @param rows the row of the cell guessed at each level.
+     * @param cols the column of the cell guessed at each level.
+     * @param masks the candidates still to try at each level.
+     * @param top the highest level of the stack.
+     */
+    private SearchTask donate(int[] rows, int[] cols, int[] masks, int top) {
+      int level = 0;
+      while (level <= top && masks[level] == 0) {
+        level++;
+      }
+      if (level > top) {
+        return null;
+      }
+
+      int candidates = masks[level];
+      int half = candidates;
+      for (int n = Integer.bitCount(candidates) / 2; n > 0; n--) {
+        half &= half - 1;
+      }
+      masks[level] = candidates ^ half;
+
+      Board branch = new Board(board);
+      for (int l = top; l >= level; l--) {
+        branch.setCell(rows[l], cols[l], Board.EMPTY_CELL);
+      }
+      return new SearchTask(branch, onSolution, counter, rows[level], cols[level], half);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package sudoku.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Phase of a request to the app or to the service, such as parsing the board,
+ * computing its search space or enumerating its solutions.
+ */
+@Name("sudoku.RequestPhase")
+@Label("Request Phase")
+@Category("Sudoku")
+@Description("Phase of a request to the app or to the service")
+@Enabled(false)
+@StackTrace(false)
+public final class RequestPhaseEvent extends Event {
+  @Label("Request")
+  @Description("The file of the board, or the endpoint of the service")
+  public String request;
+
+  @Label("Phase")
+  public String phase;
+
+  /**
+   * Start timing a phase, to commit when the phase ends.
+   * @param request the file of the board, or the endpoint of the service.
+   * @param phase the name of the phase.
+   */
+  public static RequestPhaseEvent start(String request, String phase) {
+    RequestPhaseEvent event = new RequestPhaseEvent();
+    event.request = request;
+    event.phase = phase;
+    event.begin();
+    return event;
+  }
+}
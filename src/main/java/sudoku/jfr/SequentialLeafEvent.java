@@ -0,0 +1,37 @@
+package sudoku.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sequential enumeration of a subtree that the split policy of the fork/join
+ * engine decided not to split further.
+ */
+@Name("sudoku.SequentialLeaf")
+@Label("Sequential Leaf")
+@Category({"Sudoku", "Fork/Join"})
+@Description("Sequential enumeration of a subtree not worth splitting")
+@Enabled(false)
+@StackTrace(false)
+public final class SequentialLeafEvent extends Event {
+  @Label("Depth")
+  @Description("Number of cells filled by the search above the subtree")
+  public int depth;
+
+  @Label("Log2 Search Space")
+  @Description("Base 2 logarithm of the search space of the subtree")
+  public double log2SearchSpace;
+
+  @Label("Nodes")
+  @Description("Boards visited by the enumeration")
+  public long nodes;
+
+  @Label("Solutions")
+  @Description("Solutions found by the enumeration")
+  public long solutions;
+}
@@ -0,0 +1,42 @@
+package sudoku.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execution of a task of the fork/join engine, up to the point where it either
+ * forked its subtasks or enumerated its subtree sequentially, so that the
+ * duration of a task that split is its overhead alone.
+ */
+@Name("sudoku.SubtreeTask")
+@Label("Subtree Task")
+@Category({"Sudoku", "Fork/Join"})
+@Description("Execution of a task of the fork/join engine, without its subtasks")
+@Enabled(false)
+@StackTrace(false)
+public final class SubtreeTaskEvent extends Event {
+  @Label("Depth")
+  @Description("Number of cells filled by the search above the task")
+  public int depth;
+
+  @Label("Log2 Search Space")
+  @Description("Base 2 logarithm of the search space of the board of the task")
+  public double log2SearchSpace;
+
+  @Label("Stolen")
+  @Description("Whether the task ran on a worker other than the one that forked it")
+  public boolean stolen;
+
+  @Label("Split")
+  @Description("Whether the task forked subtasks instead of enumerating its subtree")
+  public boolean split;
+
+  @Label("Nodes")
+  @Description("Boards visited by the task itself, not by its subtasks")
+  public long nodes;
+}
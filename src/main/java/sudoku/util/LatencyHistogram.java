@@ -0,0 +1,130 @@
+package sudoku.util;
+
+/**
+ * Histogram of non-negative latencies with a bounded relative error, that
+ * takes constant time and memory to record a value whatever the number of
+ * values recorded.
+ *
+ * <p>Values below 128 have a bucket each. Above that every power of two is
+ * split in 128 buckets of the same width, so that a value and the bound of its
+ * bucket differ by less than 1/128 of the value. The mean and the variance are
+ * kept exactly, as doubles, with Welford's algorithm.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final long[] counts = new long[(64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS];
+  private long count;
+  private long min = Long.MAX_VALUE;
+  private long max = Long.MIN_VALUE;
+  private double mean;
+  private double squares;
+
+  /**
+   * Default Constructor.
+   */
+  public LatencyHistogram() {}
+
+  /**
+   * Record a value.
+   * @param value the value to record.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("The value must be non-negative: " + value);
+    }
+    counts[index(value)]++;
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    double delta = value - mean;
+    mean += delta / count;
+    squares += delta * (value - mean);
+  }
+
+  /**
+   * Get the number of values recorded.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Get the smallest value recorded, 0 if there are none.
+   */
+  public long getMin() {
+    return count == 0 ? 0L : min;
+  }
+
+  /**
+   * Get the largest value recorded, 0 if there are none.
+   */
+  public long getMax() {
+    return count == 0 ? 0L : max;
+  }
+
+  /**
+   * Get the mean of the values recorded, 0 if there are none.
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Get the standard deviation of the values recorded, 0 if there are none.
+   */
+  public double getStdDev() {
+    return count == 0 ? 0.0 : Math.sqrt(squares / count);
+  }
+
+  /**
+   * Get the value below or at which are the given fraction of the values
+   * recorded, rounded up to the bound of its bucket.
+   * @param quantile the fraction of the values, between 0 and 1.
+   * @return the value, 0 if there are none.
+   */
+  public long getValueAtQuantile(double quantile) {
+    if (!(quantile >= 0.0 && quantile <= 1.0)) {
+      throw new IllegalArgumentException("The quantile must be between 0 and 1: " + quantile);
+    }
+    if (count == 0) {
+      return 0L;
+    }
+    long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+    long seen = 0L;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.max(min, Math.min(max, highestValue(i)));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Get the bucket of a value.
+   * @param value a non-negative value.
+   */
+  static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /**
+   * Get the largest value that falls in a bucket.
+   * @param index the bucket.
+   */
+  static long highestValue(int index) {
+    int group = index >>> SUB_BUCKET_BITS;
+    if (group == 0) {
+      return index;
+    }
+    long lowest = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << (group - 1);
+    return lowest + (1L << (group - 1)) - 1;
+  }
+}
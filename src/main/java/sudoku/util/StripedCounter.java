@@ -0,0 +1,123 @@
+package sudoku.util;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class StripedCounter {
+  // Number of longs between two cells, so that each cell sits on its own cache line.
+  private static final int PADDING = 8;
+
+  private final AtomicLongArray cells;
+  private final int mask;
+  private BigInteger overflow = BigInteger.ZERO;
+
+  /**
+   * Default Constructor.
+   */
+  public StripedCounter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Default Constructor.
+   * @param threads the number of threads expected to update the counter.
+   */
+  public StripedCounter(int threads) {
+    int stripes = Integer.highestOneBit(Math.max(threads, 1) * 2 - 1) << 1;
+    cells = new AtomicLongArray(stripes * PADDING);
+    mask = stripes - 1;
+  }
+
+  /**
+   * Get the value. The result is exact only if no thread is updating the counter.
+   */
+  public BigInteger get() {
+    BigIntSum sum = new BigIntSum();
+    for (int i = 0; i < cells.length(); i += PADDING) {
+      sum.add(cells.get(i));
+    }
+    synchronized (this) {
+      sum.add(overflow);
+    }
+    return sum.get();
+  }
+
+  /**
+   * Increment.
+   */
+  public StripedCounter inc() {
+    return add(1L);
+  }
+
+  /**
+   * Add a value.
+   * @param value a non-negative value to add.
+   */
+  public StripedCounter add(long value) {
+    if (value < 0L) {
+      throw new IllegalArgumentException("The value must be non-negative: " + value);
+    }
+    int index = cellIndex();
+    while (true) {
+      long current = cells.get(index);
+      long next = current + value;
+      if (next < 0L) {
+        if (cells.compareAndSet(index, current, 0L)) {
+          spill(BigInteger.valueOf(current).add(BigInteger.valueOf(value)));
+          return this;
+        }
+      } else if (cells.compareAndSet(index, current, next)) {
+        return this;
+      }
+    }
+  }
+
+  /**
+   * Add a value.
+   * @param value a non-negative value to add.
+   */
+  public StripedCounter add(BigInteger value) {
+    if (value.bitLength() < Long.SIZE) {
+      return add(value.longValue());
+    }
+    if (value.signum() < 0) {
+      throw new IllegalArgumentException("The value must be non-negative: " + value);
+    }
+    spill(value);
+    return this;
+  }
+
+  /**
+   * Add a value.
+   * @param value the value to add.
+   */
+  public StripedCounter add(UInt128 value) {
+    if (value.fitsInLong()) {
+      return add(value.longValue());
+    }
+    spill(value.toBigInteger());
+    return this;
+  }
+
+  /**
+   * Add a value to the shared overflow.
+   * @param value a value to add.
+   */
+  private synchronized void spill(BigInteger value) {
+    overflow = overflow.add(value);
+  }
+
+  /**
+   * Compute the index of the cell assigned to the current thread.
+   */
+  private int cellIndex() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+    return (hash & mask) * PADDING;
+  }
+
+  @Override
+  public String toString() {
+    return get().toString();
+  }
+}
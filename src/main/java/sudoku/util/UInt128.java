@@ -0,0 +1,123 @@
+package sudoku.util;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable unsigned 128-bit accumulator made of two longs. It never allocates
+ * while adding, unlike {@link BigIntSum} once its long overflows, and it is
+ * wide enough for the solutions of any board up to 9x9: the empty grid has
+ * about 6.67e21 of them, that is 73 bits.
+ */
+public class UInt128 {
+  private static final BigInteger TWO_TO_64 = BigInteger.ONE.shiftLeft(Long.SIZE);
+
+  private long high;
+  private long low;
+
+  /**
+   * Default Constructor.
+   */
+  public UInt128() {}
+
+  /**
+   * Default Constructor.
+   * @param initial an initial value, read as unsigned.
+   */
+  public UInt128(long initial) {
+    low = initial;
+  }
+
+  /**
+   * Increment.
+   */
+  public UInt128 inc() {
+    if (++low == 0L) {
+      carry(1L);
+    }
+    return this;
+  }
+
+  /**
+   * Add a value.
+   * @param value a value to add, read as unsigned.
+   */
+  public UInt128 add(long value) {
+    long sum = low + value;
+    if (Long.compareUnsigned(sum, low) < 0) {
+      carry(1L);
+    }
+    low = sum;
+    return this;
+  }
+
+  /**
+   * Add a value.
+   * @param value a non-negative value to add that fits in 128 bits.
+   */
+  public UInt128 add(BigInteger value) {
+    if (value.signum() < 0 || value.bitLength() > 2 * Long.SIZE) {
+      throw new ArithmeticException("The value does not fit in 128 unsigned bits: " + value);
+    }
+    carry(value.shiftRight(Long.SIZE).longValue());
+    return add(value.longValue());
+  }
+
+  /**
+   * Add the value of another accumulator.
+   * @param other the accumulator to add, left unchanged.
+   */
+  public UInt128 merge(UInt128 other) {
+    carry(other.high);
+    return add(other.low);
+  }
+
+  /**
+   * Check whether the value fits in a non-negative long.
+   */
+  public boolean fitsInLong() {
+    return high == 0L && low >= 0L;
+  }
+
+  /**
+   * Get the lowest 64 bits of the value.
+   */
+  public long longValue() {
+    return low;
+  }
+
+  /**
+   * Get the value.
+   */
+  public BigInteger toBigInteger() {
+    if (high == 0L) {
+      return unsigned(low);
+    }
+    return unsigned(high).shiftLeft(Long.SIZE).add(unsigned(low));
+  }
+
+  /**
+   * Convert a long read as unsigned.
+   * @param value the value to convert.
+   */
+  private static BigInteger unsigned(long value) {
+    BigInteger big = BigInteger.valueOf(value);
+    return value < 0L ? big.add(TWO_TO_64) : big;
+  }
+
+  /**
+   * Add to the high word.
+   * @param value a value to add, read as unsigned.
+   */
+  private void carry(long value) {
+    long sum = high + value;
+    if (Long.compareUnsigned(sum, high) < 0) {
+      throw new ArithmeticException("The value does not fit in 128 unsigned bits");
+    }
+    high = sum;
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+}
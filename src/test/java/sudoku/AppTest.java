@@ -3,13 +3,23 @@ package sudoku;
 // checkstyle-disable-next-line AvoidStarImport
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class AppTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void testNoArgs() {
     App.Args args = new App.Args();
@@ -64,4 +74,210 @@ public class AppTest {
     main.run(out::add);
     assertThat(out.toString()).contains("261718015484414301673881600000000000", "25.93%", "276");
   }
+
+  @Test
+  public void testValidFileStats() {
+    App.Args args = new App.Args();
+    args.stats = true;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    main.run(out::add);
+    assertThat(out.toString()).contains("Legal solutions: 276", "Nodes: ", "Solutions: 276");
+  }
+
+  @Test
+  public void testBenchmark() {
+    App.Args args = new App.Args();
+    args.sequential = true;
+    args.iterations = 3;
+    args.warmupIterations = 2;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+
+    List<String> out = new LinkedList<>();
+    assertThat(new App(args).run(out::add)).isEqualTo(0);
+    assertThat(out.get(0)).isEqualTo(BenchmarkRun.CSV_HEADER + "\n");
+    String[] fields = out.get(1).trim().split(",");
+    assertThat(fields).hasSize(BenchmarkRun.CSV_HEADER.split(",").length);
+    assertThat(fields[0]).isEqualTo("src/test/fixtures/valid.txt");
+    assertThat(fields[1]).isEqualTo("2");
+    assertThat(fields[2]).isEqualTo("3");
+
+    args.benchFormat = "json";
+    out.clear();
+    assertThat(new App(args).run(out::add)).isEqualTo(0);
+    assertThat(out).hasSize(1);
+    assertThat(out.get(0)).startsWith(
+        "{\"name\":\"src/test/fixtures/valid.txt\",\"warmup_iterations\":2,\"iterations\":3,")
+        .contains("\"p999_us\":", "\"gc_time_ms\":").endsWith("}\n");
+
+    args.benchFormat = "xml";
+    out.clear();
+    assertThat(new App(args).run(out::add)).isEqualTo(2);
+  }
+
+  @Test
+  public void testValidFileParallelWithThreads() {
+    App.Args args = new App.Args();
+    args.threads = 2;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    main.run(out::add);
+    assertThat(out.toString()).contains("261718015484414301673881600000000000", "25.93%", "276");
+  }
+
+  @Test
+  public void testValidFileFrontier() {
+    App.Args args = new App.Args();
+    args.engine = "frontier";
+    args.frontierDepth = 4;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    main.run(out::add);
+    assertThat(out.toString()).contains("Legal solutions: 276");
+  }
+
+  @Test
+  public void testValidFileFirst() {
+    App.Args args = new App.Args();
+    args.first = true;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    main.run(out::add);
+    assertThat(out.toString()).contains("First solution:");
+  }
+
+  @Test
+  public void testValidFileFirstWithRestarts() {
+    App.Args args = new App.Args();
+    args.first = true;
+    args.restarts = true;
+    args.seed = 7L;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    main.run(out::add);
+    assertThat(out.toString()).contains("First solution:");
+  }
+
+  @Test
+  public void testBatch() {
+    App.Args args = new App.Args();
+    args.batch = true;
+    args.threads = 2;
+    args.filenames = Arrays.asList("src/test/fixtures/batch.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    assertThat(main.run(out::add)).isEqualTo(0);
+    String csv = String.join("", out);
+    assertThat(csv).startsWith(BatchSolver.CSV_HEADER);
+    assertThat(csv).contains(
+        "src/test/fixtures/batch.txt,0,276,false,",
+        "src/test/fixtures/batch.txt,1,1,true,",
+        "Puzzles: 3",
+        "Puzzles/s: "
+    );
+  }
+
+  @Test
+  public void testBatchInvalidFile() {
+    App.Args args = new App.Args();
+    args.batch = true;
+    args.filenames = Arrays.asList("src/test/fixtures/missing.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    assertThat(main.run(out::add)).isEqualTo(1);
+    assertThat(out.toString()).contains("No such file");
+  }
+
+  @Test
+  public void testBatchInvalidPuzzle() {
+    App.Args args = new App.Args();
+    args.batch = true;
+    args.filenames = Arrays.asList("src/test/fixtures/invalid.txt");
+    App main = new App(args);
+
+    List<String> out = new LinkedList<>();
+    assertThat(main.run(out::add)).isEqualTo(2);
+    assertThat(out.toString()).contains("Illegal argument");
+  }
+
+  @Test
+  public void testPrintDeltaAndDecode() throws IOException {
+    Path text = folder.newFile().toPath();
+    final Path delta = folder.newFile().toPath();
+    final Path decoded = folder.newFile().toPath();
+
+    App.Args args = new App.Args();
+    args.print = true;
+    args.sequential = true;
+    args.output = text.toString();
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    assertThat(new App(args).run(s -> { })).isEqualTo(0);
+
+    args.format = "delta";
+    args.output = delta.toString();
+    assertThat(new App(args).run(s -> { })).isEqualTo(0);
+
+    args = new App.Args();
+    args.decode = true;
+    args.output = decoded.toString();
+    args.filenames = Arrays.asList(delta.toString());
+    assertThat(new App(args).run(s -> { })).isEqualTo(0);
+
+    String expected = new String(Files.readAllBytes(text), StandardCharsets.US_ASCII);
+    assertThat(expected.split("\n\n")).hasSize(276);
+    assertThat(Files.size(delta)).isLessThan(Files.size(text));
+    assertThat(new String(Files.readAllBytes(decoded), StandardCharsets.US_ASCII))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  public void testPrintOrdered() {
+    App.Args args = new App.Args();
+    args.print = true;
+    args.sequential = true;
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    List<String> sequential = new LinkedList<>();
+    assertThat(new App(args).run(sequential::add)).isEqualTo(0);
+
+    args.sequential = false;
+    args.ordered = true;
+    for (String cutoff : new String[] {"1", "1e6", "1e14", "1e20"}) {
+      for (int threads : new int[] {1, 3}) {
+        args.cutoff = new BigDecimal(cutoff);
+        args.threads = threads;
+        List<String> ordered = new LinkedList<>();
+        assertThat(new App(args).run(ordered::add)).isEqualTo(0);
+        assertThat(String.join("", ordered)).as("cutoff %s on %d threads", cutoff, threads)
+            .isEqualTo(String.join("", sequential));
+      }
+    }
+  }
+
+  @Test
+  public void testTuneRecordsWorkers() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("profile.properties");
+    App.Args args = new App.Args();
+    args.tune = true;
+    args.threads = 3;
+    args.iterations = 1;
+    args.output = file.toString();
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+    List<String> out = new LinkedList<>();
+    assertThat(new App(args).run(out::add)).isEqualTo(0);
+    assertThat(String.join("", out)).contains("Best cutoff: ");
+    // Tuned for the workers of the run, not for the cores of the machine.
+    assertThat(MachineProfile.load(file).getCores()).isEqualTo(3);
+  }
 }
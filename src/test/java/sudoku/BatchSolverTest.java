@@ -0,0 +1,43 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchSolverTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testInvalidPuzzle() {
+    assertThatThrownBy(() -> BatchSolver.solve(
+        Arrays.asList(Paths.get("src/test/fixtures/invalid.txt")), csv -> { }, 2))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testOutputFailure() throws IOException {
+    // More batches than can wait for the writer, then a file that cannot be read.
+    Path many = folder.newFile().toPath();
+    String puzzle = "800203006050700009004000100790050004000806000"
+        + "100070095003000200500007060400609001";
+    Files.write(many, Collections.nCopies(10 * 256, puzzle), StandardCharsets.US_ASCII);
+    Path invalid = Paths.get("src/test/fixtures/invalid.txt");
+
+    assertThatThrownBy(() -> BatchSolver.solve(Arrays.asList(many, invalid), csv -> {
+      throw new UncheckedIOException(new IOException("Disk full"));
+    }, 1)).isInstanceOf(UncheckedIOException.class).hasMessageContaining("Disk full");
+  }
+}
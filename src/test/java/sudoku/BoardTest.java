@@ -215,6 +215,46 @@ public class BoardTest {
     assertThat(sudoku.getCandidatesCount(3, 1)).isEqualTo(1);
   }
 
+  @Test
+  public void testBoardCandidatesMask() {
+    int[][] board = new int[][]{
+      {3, 1, 0, 0},
+      {4, 2, 0, 0},
+      {0, 0, 2, 0},
+      {0, 0, 1, 3}
+    };
+    Board sudoku = new Board(board);
+    assertThat(sudoku.getCandidatesMask(0, 0)).isEqualTo(0);
+    assertThat(sudoku.getCandidatesMask(0, 2)).isEqualTo(1 << 4);
+    assertThat(sudoku.getCandidatesMask(0, 3)).isEqualTo((1 << 2) | (1 << 4));
+    assertThat(sudoku.getCandidatesMask(2, 1)).isEqualTo((1 << 3) | (1 << 4));
+
+    assertThatThrownBy(() -> {
+      sudoku.getCandidatesMask(4, 0);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The cell specified is out of the board");
+  }
+
+  @Test
+  public void testBoardPacked() {
+    Board sudoku = new Board(new int[][]{
+      {3, 1, 0, 0},
+      {4, 2, 0, 0},
+      {0, 0, 2, 0},
+      {0, 0, 1, 3}
+    });
+    byte[] cells = new byte[2 + sudoku.getSize()];
+    sudoku.writeCells(cells, 2);
+    Board packed = new Board(cells, 2, 4);
+    assertThat(packed.toString()).isEqualTo(sudoku.toString());
+    assertThat(packed.getSearchSpace()).isEqualTo(sudoku.getSearchSpace());
+
+    assertThatThrownBy(() -> {
+      new Board(cells, 3, 4);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The board is out of the array");
+  }
+
   @Test
   public void testBoardIsCandidate() {
     int[][] board = new int[][]{
@@ -424,6 +464,52 @@ public class BoardTest {
     assertThat(sudoku.getSearchSpace()).isNull();
   }
 
+  @Test
+  public void testBoardLog2SearchSpace() {
+    Board sudoku = new Board(new int[][]{
+      {8, 0, 0, 2, 0, 3, 0, 0, 6},
+      {0, 5, 0, 7, 0, 0, 0, 0, 9},
+      {0, 0, 4, 0, 0, 0, 1, 0, 0},
+      {7, 9, 0, 0, 5, 0, 0, 0, 4},
+      {0, 0, 0, 8, 0, 6, 0, 0, 0},
+      {1, 0, 0, 0, 7, 0, 0, 9, 5},
+      {0, 0, 3, 0, 0, 0, 2, 0, 0},
+      {5, 0, 0, 0, 0, 7, 0, 6, 0},
+      {4, 0, 0, 6, 0, 9, 0, 0, 1}
+    });
+    double expected = Math.log(new BigInteger("43129799915034095124480000").doubleValue())
+        / Math.log(2);
+    assertThat(sudoku.getLog2SearchSpace()).isCloseTo(expected, within(1e-6));
+
+    Board copy = new Board(sudoku);
+    copy.setCell(0, 1, 1);
+    copy.setCell(0, 2, 7);
+    copy.setCell(0, 2, 9);
+    copy.setCell(0, 1, Board.EMPTY_CELL);
+    copy.setCell(0, 2, Board.EMPTY_CELL);
+    assertThat(copy.getLog2SearchSpace()).isEqualTo(sudoku.getLog2SearchSpace());
+
+    assertThat(copy.setSearchSpaceTracking(false)).isTrue();
+    copy.setCell(0, 1, 1);
+    expected = Math.log(copy.getSearchSpace().doubleValue()) / Math.log(2);
+    assertThat(copy.getLog2SearchSpace()).isCloseTo(expected, within(1e-6));
+    assertThat(copy.setSearchSpaceTracking(true)).isFalse();
+    assertThat(copy.getLog2SearchSpace()).isCloseTo(expected, within(1e-6));
+
+    sudoku = new Board(new int[][]{
+      {1, 2, 3, 0},
+      {0, 0, 0, 4},
+      {0, 0, 0, 0},
+      {0, 0, 0, 0}
+    });
+    assertThat(sudoku.getLog2SearchSpace()).isEqualTo(Double.NEGATIVE_INFINITY);
+    sudoku.setCell(1, 3, Board.EMPTY_CELL);
+    assertThat(sudoku.getLog2SearchSpace()).isCloseTo(
+        Math.log(sudoku.getSearchSpace().doubleValue()) / Math.log(2), within(1e-6));
+
+    assertThat(new Board(new int[][]{{1}}).getLog2SearchSpace()).isEqualTo(0.0);
+  }
+
   @Test
   public void testBoardFillables() {
     Board sudoku = new Board(new int[][]{
@@ -589,4 +675,32 @@ public class BoardTest {
     assertThat(sudoku.getNextToFill().toString()).isEqualTo("(2,0)");
     assertThat(sudoku.getBestNextToFill().toString()).isEqualTo("(5,5)");
   }
+
+  @Test
+  public void testBoardBestNextToFillHistory() {
+    int[][] board = new int[][]{
+      {8, 0, 0, 2, 0, 3, 0, 0, 6},
+      {0, 5, 0, 7, 0, 0, 0, 0, 9},
+      {0, 0, 4, 0, 0, 0, 1, 0, 0},
+      {7, 9, 0, 0, 5, 0, 0, 0, 4},
+      {0, 0, 0, 8, 0, 6, 0, 0, 0},
+      {1, 0, 0, 0, 7, 0, 0, 9, 5},
+      {0, 0, 3, 0, 0, 0, 2, 0, 0},
+      {5, 0, 0, 0, 0, 7, 0, 6, 0},
+      {4, 0, 0, 6, 0, 9, 0, 0, 1}
+    };
+    Board sudoku = new Board(board);
+
+    // Set, clear and change cells in an order unlike the one of a new board.
+    int[][] changes = new int[][]{
+      {5, 2, 2}, {7, 6, 8}, {3, 7, 1}, {7, 6, 0}, {5, 2, 6}, {4, 4, 9}, {3, 7, 0}
+    };
+    for (int[] change : changes) {
+      sudoku.setCell(change[0], change[1], change[2]);
+      board[change[0]][change[1]] = change[2];
+      String best = new Board(board).getBestNextToFill().toString();
+      assertThat(sudoku.getBestNextToFill().toString()).isEqualTo(best);
+      assertThat(new Board(sudoku).getBestNextToFill().toString()).isEqualTo(best);
+    }
+  }
 }
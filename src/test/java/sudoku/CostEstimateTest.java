@@ -0,0 +1,36 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class CostEstimateTest {
+  @Test
+  public void testEstimate() {
+    Board board = SolverService.parse(
+        "..93....1.6...8...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2.....4..");
+    String before = board.toString();
+    CostEstimate estimate = CostEstimate.of(board);
+    assertThat(board.toString()).isEqualTo(before);
+    assertThat(estimate.getFillFactor()).isCloseTo(0.2593, within(1e-4));
+    assertThat(estimate.getLog2SearchSpace()).isEqualTo(board.getLog2SearchSpace());
+    assertThat(estimate.getProbes()).isBetween(8, 64);
+
+    SearchStats stats = new SearchStats();
+    SequentialSolver.enumerate(board, null, stats);
+    double error = Math.abs(Math.log10(estimate.getNodes() / stats.getNodes()));
+    assertThat(error).isLessThan(1.0);
+  }
+
+  @Test
+  public void testEstimateTrivial() {
+    assertThat(CostEstimate.of(SolverService.parse("1234341221434321")).getNodes())
+        .isEqualTo(1.0);
+    assertThat(CostEstimate.of(SolverService.parse("12....4....3....")).getNodes())
+        .isEqualTo(1.0);
+    // Small trees are bounded by the search space.
+    Board single = SolverService.parse("123434122143432.");
+    assertThat(CostEstimate.of(single).getNodes()).isEqualTo(2.0);
+  }
+}
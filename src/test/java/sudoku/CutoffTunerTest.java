@@ -0,0 +1,44 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CutoffTunerTest {
+  private static final Board BOARD = SolverService.parse(
+      "..93....1.6...8...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2.....4..");
+
+  @Test
+  public void testGoldenSection() {
+    List<Double> tried = new ArrayList<>();
+    CutoffTuner tuner = new CutoffTuner(Collections.singletonList(BOARD), null, 0, 1) {
+      @Override
+      public double measure(double log10) {
+        tried.add(log10);
+        return (log10 - 27.3) * (log10 - 27.3);
+      }
+    };
+    List<String> progress = new ArrayList<>();
+    double best = tuner.tune(10.0, 40.0, 0.25, progress::add);
+    assertThat(best).isCloseTo(27.3, within(0.25));
+    // A single new point for each step.
+    assertThat(tried.size()).isLessThanOrEqualTo(2 + (int) Math.ceil(
+        Math.log(0.25 / 30.0) / Math.log((Math.sqrt(5.0) - 1.0) / 2.0)));
+    assertThat(progress).hasSameSizeAs(tried);
+  }
+
+  @Test
+  public void testMeasure() {
+    CutoffTuner tuner = new CutoffTuner(Collections.singletonList(BOARD), null, 0, 1);
+    double best = tuner.tune(30.0, 37.0, 3.0, null);
+    assertThat(best).isBetween(30.0, 37.0);
+    assertThat(CutoffTuner.cutoff(28.0)).isEqualTo(BigInteger.TEN.pow(28));
+    assertThat(CutoffTuner.cutoff(-1.0)).isEqualTo(BigInteger.ONE);
+  }
+}
@@ -0,0 +1,139 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DaemonTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static String request(int port, String... lines) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      OutputStream out = socket.getOutputStream();
+      out.write((String.join("\n", lines) + "\n\n").getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      ByteArrayOutputStream response = new ByteArrayOutputStream();
+      InputStream in = socket.getInputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        response.write(buffer, 0, read);
+      }
+      return new String(response.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testServe() throws Exception {
+    String cwd = Paths.get("").toAbsolutePath().toString();
+    Path tokenFile = folder.getRoot().toPath().resolve("daemon").resolve("daemon.token");
+    try (Daemon daemon = new Daemon(0, tokenFile)) {
+      if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)))
+            .isEqualTo("rw-------");
+      }
+      String token = new String(Files.readAllBytes(tokenFile), StandardCharsets.US_ASCII);
+      Thread server = new Thread(() -> {
+        try {
+          daemon.serve();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      server.start();
+
+      String unauthorized = request(daemon.getPort(), "wrong", cwd, "src/test/fixtures/valid.txt");
+      assertThat(unauthorized).startsWith("Unauthorized request").endsWith("\nexit 4\n");
+      String counted = request(daemon.getPort(), token, cwd, "-s", "src/test/fixtures/valid.txt");
+      assertThat(counted).contains("Legal solutions: 276\n").endsWith("\nexit 0\n");
+      String benchmarked = request(daemon.getPort(), token, cwd, "-i", "2",
+          "src/test/fixtures/valid.txt");
+      assertThat(benchmarked).startsWith(BenchmarkRun.CSV_HEADER + "\n")
+          .contains("valid.txt,0,2,").endsWith("\nexit 0\n");
+      String missing = request(daemon.getPort(), token, cwd, "src/test/fixtures/missing.txt");
+      assertThat(missing).contains("missing.txt").endsWith("\nexit -1\n");
+
+      daemon.close();
+      server.join(10000);
+      assertThat(server.isAlive()).isFalse();
+    }
+    assertThat(Files.exists(tokenFile)).isFalse();
+  }
+
+  @Test
+  public void testRunInvalidRequest() {
+    List<String> out = new LinkedList<>();
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("-j", "x"), out::add)).isEqualTo(3);
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("--daemon"), out::add)).isEqualTo(2);
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("-p", "-f", "delta", "a.txt"), out::add))
+        .isEqualTo(2);
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("-p", "-o", "b.txt", "a.txt"), out::add))
+        .isEqualTo(2);
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("--batch", "-o", "b.csv", "a.txt"),
+        out::add)).isEqualTo(2);
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("--tune", "a.txt"), out::add))
+        .isEqualTo(2);
+    assertThat(Daemon.run(Paths.get(""), Arrays.asList("--sweep", "a.txt"), out::add))
+        .isEqualTo(2);
+    assertThat(out.toString()).contains("only run the app", "as text", "cannot write files");
+  }
+
+  @Test(timeout = 30000)
+  public void testIdleConnections() throws Exception {
+    String cwd = Paths.get("").toAbsolutePath().toString();
+    Path tokenFile = folder.getRoot().toPath().resolve("daemon.token");
+    try (Daemon daemon = new Daemon(0, tokenFile, 200)) {
+      String token = new String(Files.readAllBytes(tokenFile), StandardCharsets.US_ASCII);
+      Thread server = new Thread(() -> {
+        try {
+          daemon.serve();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      server.start();
+
+      // Enough silent clients to take every handler.
+      List<Socket> idle = new LinkedList<>();
+      try {
+        for (int i = 0; i < Runtime.getRuntime().availableProcessors() + 1; i++) {
+          idle.add(new Socket(InetAddress.getLoopbackAddress(), daemon.getPort()));
+        }
+        for (Socket socket : idle) {
+          assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        String counted = request(daemon.getPort(), token, cwd, "-s",
+            "src/test/fixtures/valid.txt");
+        assertThat(counted).contains("Legal solutions: 276\n").endsWith("\nexit 0\n");
+      } finally {
+        for (Socket socket : idle) {
+          socket.close();
+        }
+      }
+
+      daemon.close();
+      server.join(10000);
+      assertThat(server.isAlive()).isFalse();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class FirstSolutionSolverTest {
+  static final int[][] HARD = new int[][]{
+    {0, 0, 9, 3, 0, 0, 0, 0, 1},
+    {0, 6, 0, 0, 0, 8, 0, 0, 0},
+    {4, 0, 0, 0, 0, 0, 2, 0, 0},
+    {0, 0, 0, 4, 0, 0, 0, 0, 9},
+    {0, 0, 3, 0, 5, 0, 7, 0, 0},
+    {1, 0, 0, 0, 0, 6, 0, 0, 0},
+    {0, 0, 6, 0, 0, 0, 0, 0, 8},
+    {0, 0, 0, 9, 1, 0, 0, 3, 0},
+    {2, 0, 0, 0, 0, 0, 4, 0, 0}
+  };
+
+  static final int[][] UNSOLVABLE = new int[][]{
+    {1, 2, 3, 0},
+    {0, 0, 0, 4},
+    {0, 0, 0, 0},
+    {0, 0, 0, 0}
+  };
+
+  /**
+   * Check that a solution is complete, legal and keeps the clues of the board.
+   */
+  static void assertSolves(Solution solution, int[][] clues) {
+    assertThat(solution).isNotNull();
+    int length = clues.length;
+    int[][] cells = new int[length][length];
+    for (int row = 0; row < length; row++) {
+      for (int col = 0; col < length; col++) {
+        cells[row][col] = solution.getCell(row, col);
+        if (clues[row][col] != Board.EMPTY_CELL) {
+          assertThat(cells[row][col]).isEqualTo(clues[row][col]);
+        }
+      }
+    }
+    assertThat(new Board(cells).isFull()).isTrue();
+  }
+
+  @Test
+  public void testSolve() {
+    assertSolves(FirstSolutionSolver.solve(new Board(HARD)), HARD);
+    assertThat(FirstSolutionSolver.solve(new Board(UNSOLVABLE))).isNull();
+  }
+
+  @Test
+  public void testSolveWithHeuristics() {
+    for (Heuristic.CellOrder cells : Heuristic.CellOrder.values()) {
+      for (Heuristic.ValueOrder values : Heuristic.ValueOrder.values()) {
+        for (boolean propagate : new boolean[]{false, true}) {
+          Heuristic heuristic = new Heuristic(cells, values, propagate);
+          assertSolves(FirstSolutionSolver.solve(new Board(HARD), heuristic, 7L), HARD);
+          assertThat(FirstSolutionSolver.solve(new Board(UNSOLVABLE), heuristic, 7L)).isNull();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSearchBudget() {
+    Heuristic heuristic = new Heuristic(
+        Heuristic.CellOrder.FIRST, Heuristic.ValueOrder.ASCENDING, false);
+    FirstSolutionSolver.Search search =
+        new FirstSolutionSolver.Search(new Board(new int[9][9]), heuristic, null, null);
+    assertThat(search.run(10L)).isNull();
+    assertThat(search.isExhausted()).isTrue();
+    assertThat(search.getNodes()).isEqualTo(10L);
+    assertThat(search.run(Long.MAX_VALUE)).isNotNull();
+    assertThat(search.isExhausted()).isFalse();
+  }
+}
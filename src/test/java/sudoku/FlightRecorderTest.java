@@ -0,0 +1,75 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FlightRecorderTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testEvents() throws Exception {
+    Path file = folder.getRoot().toPath().resolve("solver.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("sudoku.SubtreeTask");
+      recording.enable("sudoku.SequentialLeaf");
+      recording.enable("sudoku.RequestPhase");
+      recording.start();
+
+      SplitPolicy policy = SplitPolicy.fixed(BigInteger.TEN.pow(28));
+      assertThat(ParallelSolver.enumerate(board(), null, null, policy, null))
+          .isEqualTo(BigInteger.valueOf(276));
+      App.Args args = new App.Args();
+      args.sequential = true;
+      args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+      List<String> out = new LinkedList<>();
+      assertThat(new App(args).run(out::add)).isEqualTo(0);
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    List<RecordedEvent> tasks = events.stream()
+        .filter(event -> event.getEventType().getName().equals("sudoku.SubtreeTask"))
+        .collect(Collectors.toList());
+    List<RecordedEvent> leaves = events.stream()
+        .filter(event -> event.getEventType().getName().equals("sudoku.SequentialLeaf"))
+        .collect(Collectors.toList());
+    assertThat(tasks).anyMatch(event -> event.getBoolean("split") && event.getInt("depth") == 0);
+    assertThat(tasks).anyMatch(event -> !event.getBoolean("split"));
+    assertThat(leaves).isNotEmpty();
+    // Every board is visited once, either by a task that split or by a leaf.
+    long nodes = tasks.stream().mapToLong(event -> event.getLong("nodes")).sum();
+    SearchStats stats = new SearchStats();
+    ParallelSolver.enumerate(board(), null, stats, SplitPolicy.fixed(BigInteger.TEN.pow(28)));
+    assertThat(nodes).isEqualTo(stats.getNodes());
+    assertThat(leaves.stream().mapToLong(event -> event.getLong("solutions")).sum())
+        .isEqualTo(276L);
+
+    assertThat(events.stream()
+        .filter(event -> event.getEventType().getName().equals("sudoku.RequestPhase"))
+        .map(event -> event.getString("phase")))
+        .contains("parse", "search space", "enumerate");
+  }
+
+  private static Board board() {
+    return SolverService.parse(
+        "..93....1.6...8...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2.....4..");
+  }
+}
@@ -0,0 +1,58 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class FrontierSolverTest {
+  @Test
+  public void testEnumerate1() {
+    Board sudoku = new Board(new int[][]{
+      {3, 1, 4, 2},
+      {4, 2, 3, 1},
+      {1, 3, 2, 4},
+      {2, 4, 1, 3}
+    });
+
+    assertThat(FrontierSolver.enumerate(sudoku).toString()).isEqualTo("1");
+    assertThat(FrontierSolver.enumerate(new Board(new int[4][4])).toString()).isEqualTo("288");
+  }
+
+  @Test
+  public void testEnumerate2() {
+    Board sudoku = new Board(new int[][]{
+      {0, 0, 9, 3, 0, 0, 0, 0, 1},
+      {0, 6, 0, 0, 0, 8, 0, 0, 0},
+      {4, 0, 0, 0, 0, 0, 2, 0, 0},
+      {0, 0, 0, 4, 0, 0, 0, 0, 9},
+      {0, 0, 3, 0, 5, 0, 7, 0, 0},
+      {1, 0, 0, 0, 0, 6, 0, 0, 0},
+      {0, 0, 6, 0, 0, 0, 0, 0, 8},
+      {0, 0, 0, 9, 1, 0, 0, 3, 0},
+      {2, 0, 0, 0, 0, 0, 4, 0, 0}
+    });
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int depth : new int[]{0, 1, 3, 60}) {
+        assertThat(FrontierSolver.enumerate(sudoku, depth, 0, pool).toString())
+          .isEqualTo("276");
+      }
+      assertThat(FrontierSolver.enumerate(sudoku, Integer.MAX_VALUE, 100000, pool).toString())
+        .isEqualTo("276");
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testEnumerateWithInvalidLimits() {
+    assertThatThrownBy(() -> {
+      FrontierSolver.enumerate(new Board(new int[4][4]), -1, 0, null);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The frontier depth and size must be non-negative");
+  }
+}
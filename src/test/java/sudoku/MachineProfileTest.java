@@ -0,0 +1,54 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MachineProfileTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testStoreLoad() throws Exception {
+    Path file = folder.getRoot().toPath().resolve("dir/profile.properties");
+    assertThat(MachineProfile.load(file)).isNull();
+
+    int cores = 3;
+    new MachineProfile(new BigInteger("316227766016837933199889"), cores).store(file);
+    MachineProfile profile = MachineProfile.load(file);
+    assertThat(profile.getCutoff()).isEqualTo(new BigInteger("316227766016837933199889"));
+    assertThat(profile.getCores()).isEqualTo(cores);
+
+    String previous = System.setProperty(MachineProfile.PATH_PROPERTY, file.toString());
+    try {
+      assertThat(MachineProfile.getDefaultPath()).isEqualTo(file);
+      assertThat(MachineProfile.loadDefault(cores).getCutoff()).isEqualTo(profile.getCutoff());
+      // Tuned with other workers.
+      assertThat(MachineProfile.loadDefault(cores + 1)).isNull();
+    } finally {
+      if (previous == null) {
+        System.clearProperty(MachineProfile.PATH_PROPERTY);
+      } else {
+        System.setProperty(MachineProfile.PATH_PROPERTY, previous);
+      }
+    }
+  }
+
+  @Test
+  public void testInvalid() throws Exception {
+    Path file = folder.newFile().toPath();
+    Files.write(file, "cutoff=ten\n".getBytes(StandardCharsets.UTF_8));
+    assertThatThrownBy(() -> MachineProfile.load(file))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MachineProfile(BigInteger.ZERO, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
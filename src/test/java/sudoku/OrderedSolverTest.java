@@ -0,0 +1,137 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class OrderedSolverTest {
+  private static List<String> enumerate(Board board, SplitPolicy policy, int parallelism) {
+    List<String> solutions = new ArrayList<>();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      BigInteger count = OrderedSolver.enumerate(board, s -> solutions.add(s.toString()),
+          policy, pool);
+      assertThat(count.toString()).isEqualTo(Integer.toString(solutions.size()));
+    } finally {
+      pool.shutdown();
+    }
+    return solutions;
+  }
+
+  @Test
+  public void testEnumerate1() {
+    Board sudoku = new Board(new int[4][4]);
+    SplitPolicy policy = SplitPolicy.fixed(BigInteger.TEN);
+
+    List<String> one = enumerate(sudoku, policy, 1);
+    List<String> many = enumerate(sudoku, policy, 4);
+    assertThat(one).hasSize(288);
+    assertThat(new HashSet<>(one)).hasSize(288);
+    assertThat(many).isEqualTo(one);
+  }
+
+  @Test
+  public void testEnumerate2() {
+    Board sudoku = new Board(new int[][]{
+      {0, 0, 9, 3, 0, 0, 0, 0, 1},
+      {0, 6, 0, 0, 0, 8, 0, 0, 0},
+      {4, 0, 0, 0, 0, 0, 2, 0, 0},
+      {0, 0, 0, 4, 0, 0, 0, 0, 9},
+      {0, 0, 3, 0, 5, 0, 7, 0, 0},
+      {1, 0, 0, 0, 0, 6, 0, 0, 0},
+      {0, 0, 6, 0, 0, 0, 0, 0, 8},
+      {0, 0, 0, 9, 1, 0, 0, 3, 0},
+      {2, 0, 0, 0, 0, 0, 4, 0, 0}
+    });
+    SplitPolicy policy = SplitPolicy.fixed(new BigInteger("100000000000000000000"));
+
+    List<String> one = enumerate(sudoku, policy, 1);
+    List<String> many = enumerate(sudoku, policy, 3);
+    assertThat(one).hasSize(276);
+    assertThat(many).isEqualTo(one);
+  }
+
+  @Test
+  public void testEnumerate3() {
+    Board sudoku = new Board(new int[][]{
+      {3, 1, 4, 2},
+      {4, 2, 3, 1},
+      {1, 3, 2, 4},
+      {2, 4, 1, 3}
+    });
+
+    List<Solution> solutions = new ArrayList<>();
+    assertThat(OrderedSolver.enumerate(sudoku, solutions::add).toString()).isEqualTo("1");
+    assertThat(solutions).hasSize(1);
+  }
+
+  @Test(timeout = 30000)
+  public void testConsumerFailure() {
+    Board sudoku = new Board(new int[][]{
+      {0, 0, 9, 3, 0, 0, 0, 0, 1},
+      {0, 6, 0, 0, 0, 8, 0, 0, 0},
+      {4, 0, 0, 0, 0, 0, 2, 0, 0},
+      {0, 0, 0, 4, 0, 0, 0, 0, 9},
+      {0, 0, 3, 0, 5, 0, 7, 0, 0},
+      {1, 0, 0, 0, 0, 6, 0, 0, 0},
+      {0, 0, 6, 0, 0, 0, 0, 0, 8},
+      {0, 0, 0, 9, 1, 0, 0, 3, 0},
+      {2, 0, 0, 0, 0, 0, 4, 0, 0}
+    });
+    SplitPolicy policy = SplitPolicy.fixed(BigInteger.valueOf(1000000));
+
+    List<Solution> solutions = new ArrayList<>();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      // The other workers must stop instead of waiting for the failed subtree.
+      assertThatThrownBy(() -> OrderedSolver.enumerate(sudoku, solution -> {
+        if (solutions.size() == 10) {
+          throw new IllegalStateException("Broken pipe");
+        }
+        solutions.add(solution);
+      }, policy, pool)).isInstanceOf(IllegalStateException.class).hasMessage("Broken pipe");
+    } finally {
+      pool.shutdown();
+    }
+    assertThat(solutions).hasSize(10);
+  }
+
+  @Test
+  public void testStats() {
+    Board sudoku = new Board(new int[][]{
+      {0, 0, 9, 3, 0, 0, 0, 0, 1},
+      {0, 6, 0, 0, 0, 8, 0, 0, 0},
+      {4, 0, 0, 0, 0, 0, 2, 0, 0},
+      {0, 0, 0, 4, 0, 0, 0, 0, 9},
+      {0, 0, 3, 0, 5, 0, 7, 0, 0},
+      {1, 0, 0, 0, 0, 6, 0, 0, 0},
+      {0, 0, 6, 0, 0, 0, 0, 0, 8},
+      {0, 0, 0, 9, 1, 0, 0, 3, 0},
+      {2, 0, 0, 0, 0, 0, 4, 0, 0}
+    });
+    SplitPolicy policy = SplitPolicy.fixed(new BigInteger("100000000000000000000"));
+    SearchStats sequential = new SearchStats();
+    SequentialSolver.enumerate(sudoku, null, sequential);
+
+    SearchStats stats = new SearchStats();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      OrderedSolver.enumerate(sudoku, s -> { }, stats, policy, pool);
+    } finally {
+      pool.shutdown();
+    }
+    // The walk and the subtrees visit every board of the sequential search once.
+    assertThat(stats.getNodes()).isEqualTo(sequential.getNodes());
+    assertThat(stats.getDeadEnds()).isEqualTo(sequential.getDeadEnds());
+    assertThat(stats.getSolutions()).isEqualTo(276);
+    assertThat(stats.getMaxDepth()).isEqualTo(sequential.getMaxDepth());
+    assertThat(stats.getSequentialTasks()).isGreaterThan(1);
+  }
+}
@@ -4,6 +4,7 @@ package sudoku;
 import static org.assertj.core.api.Assertions.*;
 
 import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
@@ -91,4 +92,43 @@ public class ParallelSolverTest {
     });
     assertThat(c0.toString()).isEqualTo(c1.toString());
   }
+
+  @Test
+  public void testEnumerateWithPolicies() {
+    Board sudoku = new Board(new int[4][4]);
+
+    SplitPolicy fixed = SplitPolicy.fixed(BigInteger.valueOf(1000));
+    assertThat(ParallelSolver.enumerate(sudoku, null, null, fixed).toString())
+      .isEqualTo("288");
+    SplitPolicy adaptive = SplitPolicy.adaptive(4);
+    assertThat(ParallelSolver.enumerate(sudoku, null, null, adaptive).toString())
+      .isEqualTo("288");
+  }
+
+  @Test
+  public void testFixedPolicyWithInvalidCutoff() {
+    assertThatThrownBy(() -> SplitPolicy.fixed(BigInteger.ZERO))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The cutoff must be positive");
+  }
+
+  @Test
+  public void testEnumerateWithPool() {
+    Board sudoku = new Board(new int[4][4]);
+
+    ParallelSolver.Config config = new ParallelSolver.Config()
+        .parallelism(2)
+        .asyncMode(true)
+        .cutoff(BigInteger.valueOf(1000));
+    assertThat(ParallelSolver.enumerate(sudoku, null, null, config).toString())
+      .isEqualTo("288");
+
+    ForkJoinPool pool = config.newPool();
+    try {
+      assertThat(ParallelSolver.enumerate(sudoku, null, pool).toString()).isEqualTo("288");
+    } finally {
+      pool.shutdown();
+    }
+    assertThat(ParallelSolver.enumerate(sudoku, null, 2).toString()).isEqualTo("288");
+  }
 }
@@ -0,0 +1,40 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PortfolioSolverTest {
+  @Test
+  public void testSolve() {
+    FirstSolutionSolverTest.assertSolves(
+        PortfolioSolver.solve(new Board(FirstSolutionSolverTest.HARD)),
+        FirstSolutionSolverTest.HARD);
+    assertThat(PortfolioSolver.solve(new Board(FirstSolutionSolverTest.UNSOLVABLE))).isNull();
+  }
+
+  @Test
+  public void testSolveWithPool() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      FirstSolutionSolverTest.assertSolves(
+          PortfolioSolver.solve(new Board(FirstSolutionSolverTest.HARD),
+              Heuristic.portfolio(), 42L, pool),
+          FirstSolutionSolverTest.HARD);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testSolveWithNoHeuristics() {
+    assertThatThrownBy(() -> {
+      PortfolioSolver.solve(new Board(new int[4][4]), Collections.emptyList(), 0L, null);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The portfolio must have at least one heuristic");
+  }
+}
@@ -0,0 +1,49 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PuzzleReaderBenchTest {
+  private static final int PUZZLES = 2_000_000;
+  private static final int ITERATIONS = 5;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testBench_read() throws IOException {
+    Path file = folder.newFile().toPath();
+    Random random = new Random(38L);
+    char[] line = new char[81];
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+      for (int p = 0; p < PUZZLES; p++) {
+        for (int i = 0; i < line.length; i++) {
+          int val = random.nextInt(3) == 0 ? 1 + random.nextInt(9) : 0;
+          line[i] = val == 0 ? (random.nextBoolean() ? '.' : '0') : (char) ('0' + val);
+        }
+        writer.write(line);
+        writer.write('\n');
+      }
+    }
+
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      PuzzleReader.Puzzles puzzles = PuzzleReader.read(file);
+      long nanos = System.nanoTime() - start;
+      assertThat(puzzles.size()).isEqualTo(PUZZLES);
+      System.out.println("Decoded " + PUZZLES + " puzzles in " + nanos / 1_000_000 + "ms: "
+          + Math.round(PUZZLES / (nanos / 1e9)) + " puzzles/s");
+    }
+  }
+}
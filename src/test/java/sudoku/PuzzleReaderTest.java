@@ -0,0 +1,83 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PuzzleReaderTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path write(String content) throws IOException {
+    Path file = folder.newFile().toPath();
+    Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    PuzzleReader.Puzzles puzzles = PuzzleReader.read(write(
+        "3.....13.2..1...\n"
+        + "\n"
+        + "3100020000200013\r\n"
+        + "3142423113242413"
+    ));
+    assertThat(puzzles.size()).isEqualTo(3);
+    assertThat(puzzles.getBorderLength()).isEqualTo(4);
+    assertThat(puzzles.getBoard(0).toString()).isEqualTo("3___\n__13\n_2__\n1___\n");
+    assertThat(puzzles.getBoard(1).toString()).isEqualTo("31__\n_2__\n__2_\n__13\n");
+    assertThat(puzzles.getBoard(2).isFull()).isTrue();
+    assertThat(puzzles.getCells()).hasSize(3 * 16);
+  }
+
+  @Test
+  public void testReadManyChunks() throws IOException {
+    String line = "..9300001.6...8...4.....2.....4....9..3.5.7.."
+        + "1....6.....6.....8...91..3.2.....4..\n";
+    StringBuilder content = new StringBuilder();
+    int count = (3 << 20) / line.length();
+    for (int i = 0; i < count; i++) {
+      content.append(line);
+    }
+    PuzzleReader.Puzzles puzzles = PuzzleReader.read(write(content.toString()));
+    assertThat(puzzles.size()).isEqualTo(count);
+    assertThat(puzzles.getBoard(count - 1).getCell(0, 2)).isEqualTo(9);
+    assertThat(puzzles.getBoard(count / 2).getSearchSpace())
+      .isEqualTo(puzzles.getBoard(0).getSearchSpace());
+  }
+
+  @Test
+  public void testReadEmpty() throws IOException {
+    assertThat(PuzzleReader.read(write("")).size()).isEqualTo(0);
+    assertThat(PuzzleReader.read(write("\n\n")).size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReadInvalid() throws IOException {
+    Path invalid = write("3.....13.2..1...\n3.....13.2..1.x.\n");
+    assertThatThrownBy(() -> {
+      PuzzleReader.read(invalid);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Invalid character found: x at byte 31");
+
+    Path truncated = write("3.....13.2..1...\n3.....13.2\n");
+    assertThatThrownBy(() -> {
+      PuzzleReader.read(truncated);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Truncated puzzle");
+
+    Path notSquare = write("3.....13.2..1..\n");
+    assertThatThrownBy(() -> {
+      PuzzleReader.read(notSquare);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The board size must be a perfect square");
+  }
+}
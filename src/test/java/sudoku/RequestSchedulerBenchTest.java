@@ -0,0 +1,133 @@
+package sudoku;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class RequestSchedulerBenchTest {
+  private static final int LIGHT = 2000;
+  private static final String[] HEAVY = {
+      "src/benchmark/boards/1/b.txt", "src/benchmark/boards/2/c.txt",
+      "src/benchmark/boards/2/b.txt", "src/benchmark/boards/1/a.txt",
+  };
+  private static final long MEAN_ARRIVAL_NANOS = 1_000_000L;
+  private static final int ROUNDS = 3;
+  private static final long SEED = 2019L;
+
+  private static final class Request {
+    private final Board board;
+    private final long arrival;
+
+    private Request(Board board, long arrival) {
+      this.board = board;
+      this.arrival = arrival;
+    }
+  }
+
+  /**
+   * Mix many light puzzles with a few heavy boards, arriving at random times.
+   */
+  private static List<Request> workload() throws IOException {
+    Random random = new Random(SEED);
+    Heuristic shuffle =
+        new Heuristic(Heuristic.CellOrder.RANDOM, Heuristic.ValueOrder.RANDOM, true);
+    List<Board> boards = new ArrayList<>();
+    for (int p = 0; p < LIGHT; p++) {
+      Solution grid =
+          FirstSolutionSolver.solve(new Board(new int[9][9]), shuffle, random.nextLong());
+      char[] cells = grid.toString().replace("\n", "").toCharArray();
+      for (int i = 0; i < 45; i++) {
+        cells[random.nextInt(cells.length)] = '.';
+      }
+      boards.add(SolverService.parse(new String(cells)));
+    }
+    for (String file : HEAVY) {
+      String cells = String.join("", Files.readAllLines(Paths.get(file)));
+      boards.add(SolverService.parse(cells));
+    }
+    Collections.shuffle(boards, random);
+
+    List<Request> requests = new ArrayList<>();
+    long arrival = 0L;
+    for (Board board : boards) {
+      arrival += (long) (-Math.log(1.0 - random.nextDouble()) * MEAN_ARRIVAL_NANOS);
+      requests.add(new Request(board, arrival));
+    }
+    return requests;
+  }
+
+  /**
+   * Replay the workload and print the percentiles of the latencies, from the
+   * arrival of each request to its completion.
+   */
+  private static void replay(String name, List<Request> requests,
+      Function<Board, CompletableFuture<BigInteger>> submit) {
+    long[] nanos = new long[requests.size()];
+    List<CompletableFuture<BigInteger>> futures = new ArrayList<>();
+    long begin = System.nanoTime();
+    for (int i = 0; i < requests.size(); i++) {
+      Request request = requests.get(i);
+      long wait = begin + request.arrival - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      int index = i;
+      long arrival = begin + request.arrival;
+      futures.add(submit.apply(new Board(request.board))
+          .whenComplete((count, e) -> nanos[index] = System.nanoTime() - arrival));
+    }
+    futures.forEach(CompletableFuture::join);
+    long elapsed = System.nanoTime() - begin;
+
+    Arrays.sort(nanos);
+    System.out.println(name
+        + ": p50 " + nanos[nanos.length / 2] / 1000 + "us"
+        + ", p90 " + nanos[(int) Math.ceil(nanos.length * 0.90) - 1] / 1000 + "us"
+        + ", p99 " + nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1000 + "us"
+        + ", max " + nanos[nanos.length - 1] / 1000 + "us"
+        + ", makespan " + elapsed / 1_000_000 + "ms");
+  }
+
+  @Test
+  public void testBench_replay() throws IOException {
+    List<Request> requests = workload();
+    int threads = Runtime.getRuntime().availableProcessors();
+    SplitPolicy policy = ParallelSolver.getDefaultPolicy();
+
+    // The requests in arrival order, the large ones on the shared fork/join pool.
+    ExecutorService fifo = Executors.newFixedThreadPool(threads);
+    Function<Board, CompletableFuture<BigInteger>> plain = board ->
+        CompletableFuture.supplyAsync(() -> {
+          double space = board.getLog2SearchSpace();
+          if (space != Double.NEGATIVE_INFINITY && policy.shouldSplit(space, 0)) {
+            return ParallelSolver.enumerate(board, null, null, policy, ForkJoinPool.commonPool());
+          }
+          return SequentialSolver.enumerate(board);
+        }, fifo);
+    try (RequestScheduler scheduler =
+        new RequestScheduler(threads, Math.max(1, threads / 2))) {
+      replay("Warm-up", requests, plain);
+      replay("Warm-up", requests, scheduler::submit);
+      // Alternate the two so that both see the same state of the machine.
+      for (int round = 0; round < ROUNDS; round++) {
+        replay("FIFO", requests, plain);
+        replay("Scheduler", requests, scheduler::submit);
+      }
+    }
+    fifo.shutdown();
+  }
+}
@@ -0,0 +1,62 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class RequestSchedulerTest {
+  private static final String MANY =
+      "..93....1.6...8...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2.....4..";
+  private static final String ONE =
+      "800203006050700009004000100790050004000806000100070095003000200500007060400609001";
+
+  /**
+   * Keep the only worker busy, then submit an expensive and a cheap request.
+   * @return the names of the two requests in the order they completed.
+   */
+  private static List<String> race(double agingNanos) {
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    try (RequestScheduler scheduler = new RequestScheduler(1, 1, agingNanos)) {
+      CompletableFuture<BigInteger> blocker = scheduler.submit(SolverService.parse(MANY));
+      CompletableFuture<BigInteger> costly = scheduler.submit(SolverService.parse(MANY))
+          .whenComplete((count, e) -> order.add("costly"));
+      CompletableFuture<BigInteger> cheap = scheduler.submit(SolverService.parse(ONE))
+          .whenComplete((count, e) -> order.add("cheap"));
+      assertThat(blocker.join()).isEqualTo(276);
+      assertThat(costly.join()).isEqualTo(276);
+      assertThat(cheap.join()).isEqualTo(1);
+    }
+    return order;
+  }
+
+  @Test
+  public void testCheapestFirst() {
+    assertThat(race(RequestScheduler.DEFAULT_AGING_NANOS)).containsExactly("cheap", "costly");
+  }
+
+  @Test
+  public void testAging() {
+    // With a very short aging period the waiting time dominates the cost.
+    assertThat(race(1e-3)).containsExactly("costly", "cheap");
+  }
+
+  @Test
+  public void testParallel() {
+    try (RequestScheduler scheduler = new RequestScheduler(2, 2)) {
+      // Large enough to be split by the default policy.
+      Board board = SolverService.parse(MANY);
+      SearchStats stats = new SearchStats();
+      assertThat(scheduler.submit(board, CostEstimate.of(board), stats).join())
+          .isEqualTo(276);
+      assertThat(stats.getSolutions()).isEqualTo(276);
+      assertThat(stats.getForkedTasks()).isPositive();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class RestartSolverBenchTest {
+  private static final int PUZZLES = 1000;
+  private static final long SEED = 2019L;
+
+  /**
+   * Generate puzzles with a unique solution by removing clues from random grids
+   * for as long as the solution stays unique.
+   */
+  private static List<Board> corpus() {
+    Random random = new Random(SEED);
+    Heuristic shuffle =
+        new Heuristic(Heuristic.CellOrder.RANDOM, Heuristic.ValueOrder.RANDOM, true);
+    List<Board> puzzles = new ArrayList<>();
+    for (int p = 0; p < PUZZLES; p++) {
+      Solution grid =
+          FirstSolutionSolver.solve(new Board(new int[9][9]), shuffle, random.nextLong());
+      int[][] cells = new int[9][9];
+      for (int row = 0; row < 9; row++) {
+        for (int col = 0; col < 9; col++) {
+          cells[row][col] = grid.getCell(row, col);
+        }
+      }
+      List<Integer> order = new ArrayList<>();
+      for (int i = 0; i < 81; i++) {
+        order.add(i);
+      }
+      Collections.shuffle(order, random);
+      for (int i : order) {
+        int row = i / 9;
+        int col = i % 9;
+        int val = cells[row][col];
+        cells[row][col] = Board.EMPTY_CELL;
+        for (int other = 1; other <= 9; other++) {
+          Board board = new Board(cells);
+          if (other == val || !board.isCandidate(row, col, other)) {
+            continue;
+          }
+          board.setCell(row, col, other);
+          if (FirstSolutionSolver.solve(board) != null) {
+            cells[row][col] = val;
+            break;
+          }
+        }
+      }
+      puzzles.add(new Board(cells));
+    }
+    return puzzles;
+  }
+
+  /**
+   * Solve every puzzle and print the percentiles of the latencies.
+   */
+  private static void measure(String name, List<Board> puzzles, Function<Board, Solution> solver) {
+    long[] nanos = new long[puzzles.size()];
+    for (int i = 0; i < puzzles.size(); i++) {
+      long start = System.nanoTime();
+      Solution solution = solver.apply(puzzles.get(i));
+      nanos[i] = System.nanoTime() - start;
+      assertThat(solution).isNotNull();
+    }
+    Arrays.sort(nanos);
+    System.out.println(name
+        + ": p50 " + nanos[nanos.length / 2] / 1000 + "us"
+        + ", p99 " + nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1000 + "us"
+        + ", max " + nanos[nanos.length - 1] / 1000 + "us");
+  }
+
+  @Test
+  public void testBench_restarts() {
+    List<Board> puzzles = corpus();
+    // Warm up both solvers before measuring.
+    for (Board puzzle : puzzles) {
+      FirstSolutionSolver.solve(puzzle);
+      RestartSolver.solve(puzzle);
+    }
+    measure("Plain", puzzles, FirstSolutionSolver::solve);
+    measure("Restarts", puzzles, RestartSolver::solve);
+    measure("Restarts unit 16", puzzles, board -> RestartSolver.solve(board, 16L, SEED));
+    measure("Restarts unit 1024", puzzles, board -> RestartSolver.solve(board, 1024L, SEED));
+  }
+}
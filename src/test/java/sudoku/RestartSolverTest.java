@@ -0,0 +1,43 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class RestartSolverTest {
+  @Test
+  public void testLuby() {
+    long[] expected = new long[]{1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(RestartSolver.luby(i + 1)).isEqualTo(expected[i]);
+    }
+  }
+
+  @Test
+  public void testSolve() {
+    FirstSolutionSolverTest.assertSolves(
+        RestartSolver.solve(new Board(FirstSolutionSolverTest.HARD)),
+        FirstSolutionSolverTest.HARD);
+    FirstSolutionSolverTest.assertSolves(
+        RestartSolver.solve(new Board(FirstSolutionSolverTest.HARD), 1L, 3L),
+        FirstSolutionSolverTest.HARD);
+    assertThat(RestartSolver.solve(new Board(FirstSolutionSolverTest.UNSOLVABLE), 1L, 3L))
+      .isNull();
+  }
+
+  @Test
+  public void testSolveIsReproducible() {
+    Board board = new Board(new int[9][9]);
+    assertThat(RestartSolver.solve(board, 2L, 11L).toString())
+      .isEqualTo(RestartSolver.solve(board, 2L, 11L).toString());
+  }
+
+  @Test
+  public void testSolveWithInvalidUnit() {
+    assertThatThrownBy(() -> {
+      RestartSolver.solve(new Board(new int[4][4]), 0L, 0L);
+    }).isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The restart unit must be positive");
+  }
+}
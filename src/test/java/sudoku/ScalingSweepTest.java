@@ -0,0 +1,74 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class ScalingSweepTest {
+  @Test
+  public void testSerialFraction() {
+    assertThat(ScalingSweep.serialFraction(4.0, 4)).isCloseTo(0.0, within(1e-9));
+    assertThat(ScalingSweep.serialFraction(1.0, 4)).isCloseTo(1.0, within(1e-9));
+    assertThat(ScalingSweep.serialFraction(2.0, 4)).isCloseTo(1.0 / 3.0, within(1e-9));
+    assertThatThrownBy(() -> ScalingSweep.serialFraction(1.0, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testSweep() {
+    App.Args args = new App.Args();
+    args.sweep = true;
+    args.iterations = 2;
+    args.sweepWorkers = Arrays.asList(1, 2);
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+
+    List<String> out = new LinkedList<>();
+    assertThat(new App(args).run(out::add)).isEqualTo(0);
+    assertThat(out).hasSize(3);
+    assertThat(out.get(0)).isEqualTo(ScalingSweep.CSV_HEADER + "\n");
+    int columns = ScalingSweep.CSV_HEADER.split(",").length;
+    String[] single = out.get(1).split(",", -1);
+    assertThat(single).hasSize(columns);
+    assertThat(single[0]).isEqualTo("0");
+    assertThat(single[2]).isEqualTo("1");
+    assertThat(single[4]).isEqualTo("fixturesvalid");
+    assertThat(single[5]).isEqualTo("2");
+    assertThat(single[columns - 1]).isEqualTo("\n");
+    String[] pair = out.get(2).split(",", -1);
+    assertThat(pair).hasSize(columns);
+    assertThat(pair[2]).isEqualTo("2");
+    double speedup = Double.parseDouble(pair[15]);
+    assertThat(Double.parseDouble(pair[16])).isCloseTo(speedup / 2, within(1e-3));
+    assertThat(Double.parseDouble(pair[17].trim()))
+        .isCloseTo(ScalingSweep.serialFraction(speedup, 2), within(1e-2));
+  }
+
+  @Test
+  public void testSweepCommaLocale() {
+    App.Args args = new App.Args();
+    args.sweep = true;
+    args.iterations = 1;
+    args.sweepWorkers = Arrays.asList(2);
+    args.filenames = Arrays.asList("src/test/fixtures/valid.txt");
+
+    Locale previous = Locale.getDefault();
+    Locale.setDefault(Locale.GERMANY);
+    List<String> out = new LinkedList<>();
+    try {
+      assertThat(new App(args).run(out::add)).isEqualTo(0);
+    } finally {
+      Locale.setDefault(previous);
+    }
+    // The decimal commas of the locale would add columns.
+    String[] pair = out.get(1).split(",", -1);
+    assertThat(pair).hasSize(ScalingSweep.CSV_HEADER.split(",").length);
+    assertThat(pair[15]).matches("[0-9]+\\.[0-9]{3}");
+    assertThat(pair[17].trim()).matches("-?[0-9]+\\.[0-9]{4}");
+  }
+}
@@ -0,0 +1,65 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class SearchStatsTest {
+  @Test
+  public void testSequentialStats() {
+    Board sudoku = new Board(new int[4][4]);
+
+    SearchStats stats = new SearchStats();
+    BigInteger count = SequentialSolver.enumerate(sudoku, null, stats);
+    assertThat(count.toString()).isEqualTo("288");
+    assertThat(stats.getSolutions()).isEqualTo(288);
+    assertThat(stats.getMaxDepth()).isEqualTo(16);
+    assertThat(stats.getBranchingFactor(0)).isEqualTo(4.0);
+    assertThat(stats.getNodes()).isGreaterThan(288);
+    assertThat(stats.getForkedTasks()).isEqualTo(0);
+    assertThat(stats.getSequentialTasks()).isEqualTo(0);
+  }
+
+  @Test
+  public void testParallelStats() {
+    Board sudoku = new Board(new int[4][4]);
+
+    SearchStats sequential = new SearchStats();
+    SequentialSolver.enumerate(sudoku, null, sequential);
+
+    SearchStats parallel = new SearchStats();
+    SplitPolicy policy = SplitPolicy.fixed(BigInteger.valueOf(1000));
+    BigInteger count = ParallelSolver.enumerate(sudoku, null, parallel, policy);
+
+    assertThat(count.toString()).isEqualTo("288");
+    assertThat(parallel.getNodes()).isGreaterThan(288);
+    assertThat(parallel.getSolutions()).isEqualTo(sequential.getSolutions());
+    assertThat(parallel.getMaxDepth()).isEqualTo(sequential.getMaxDepth());
+    assertThat(parallel.getForkedTasks()).isGreaterThan(0);
+    assertThat(parallel.getSequentialTasks()).isGreaterThan(0);
+  }
+
+  @Test
+  public void testMerge() {
+    SearchStats a = new SearchStats();
+    a.visit(0, 2);
+    a.visit(1, 0);
+    SearchStats b = new SearchStats();
+    b.visit(1, 2);
+    b.solution(3);
+    b.forked(1);
+    b.sequential();
+
+    a.merge(b);
+    assertThat(a.getNodes()).isEqualTo(4);
+    assertThat(a.getDeadEnds()).isEqualTo(1);
+    assertThat(a.getSolutions()).isEqualTo(1);
+    assertThat(a.getMaxDepth()).isEqualTo(3);
+    assertThat(a.getForkedTasks()).isEqualTo(1);
+    assertThat(a.getSequentialTasks()).isEqualTo(1);
+    assertThat(a.getBranchingFactor(1)).isEqualTo(1.0);
+  }
+}
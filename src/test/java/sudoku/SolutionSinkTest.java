@@ -0,0 +1,64 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SolutionSinkTest {
+  @Test
+  public void testParallelDelivery() {
+    Board sudoku = new Board(new int[4][4]);
+
+    List<String> solutions = new ArrayList<>();
+    try (SolutionSink sink = new SolutionSink(s -> solutions.add(s.toString()), 16, 2)) {
+      assertThat(ParallelSolver.enumerate(sudoku, sink).toString()).isEqualTo("288");
+    }
+    assertThat(solutions).hasSize(288);
+    assertThat(new HashSet<>(solutions)).hasSize(288);
+    assertThat(solutions).allMatch(s -> !s.contains("_"));
+  }
+
+  @Test
+  public void testSnapshot() {
+    Board sudoku = new Board(new int[][]{
+      {3, 1, 0, 0},
+      {0, 2, 0, 0},
+      {0, 0, 2, 0},
+      {0, 0, 1, 3}
+    });
+
+    List<Solution> solutions = new ArrayList<>();
+    try (SolutionSink sink = new SolutionSink(solutions::add)) {
+      WorkStealingSolver.enumerate(sudoku, sink);
+    }
+    assertThat(solutions).hasSize(1);
+    Solution solution = solutions.get(0);
+    assertThat(solution.getBorderLength()).isEqualTo(4);
+    assertThat(solution.getCell(1, 0)).isEqualTo(4);
+    assertThat(solution.toString()).isEqualTo(
+        "3142\n"
+        + "4231\n"
+        + "1324\n"
+        + "2413\n"
+    );
+  }
+
+  @Test
+  public void testConsumerFailure() {
+    Board sudoku = new Board(new int[4][4]);
+
+    assertThatThrownBy(() -> {
+      try (SolutionSink sink = new SolutionSink(s -> {
+        throw new IllegalStateException("Broken consumer");
+      }, 1, 1)) {
+        ParallelSolver.enumerate(sudoku, sink);
+      }
+    }).isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("Broken consumer");
+  }
+}
@@ -0,0 +1,88 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SolutionWriterTest {
+  private static final int[][] BOARD = {
+      {3, 0, 0, 0},
+      {0, 0, 1, 3},
+      {0, 2, 0, 0},
+      {1, 0, 0, 0},
+  };
+
+  private List<Solution> solutions() {
+    List<Solution> solutions = new ArrayList<>();
+    SequentialSolver.enumerate(new Board(BOARD), board -> solutions.add(new Solution(board)));
+    return solutions;
+  }
+
+  private byte[] write(SolutionWriter.Format format, List<Solution> solutions) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (SolutionWriter writer = new SolutionWriter(Channels.newChannel(bytes), format, 1024)) {
+      for (Solution solution : solutions) {
+        writer.accept(solution);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private List<String> decode(byte[] bytes) throws IOException {
+    List<String> decoded = new ArrayList<>();
+    long count = SolutionDecoder.decode(
+        new ByteArrayInputStream(bytes), solution -> decoded.add(solution.toString()));
+    assertThat(count).isEqualTo(decoded.size());
+    return decoded;
+  }
+
+  @Test
+  public void testText() {
+    List<Solution> solutions = solutions();
+    StringBuilder expected = new StringBuilder();
+    for (Solution solution : solutions) {
+      expected.append(solution).append('\n');
+    }
+    String text = new String(write(SolutionWriter.Format.TEXT, solutions),
+        StandardCharsets.US_ASCII);
+    assertThat(text).isEqualTo(expected.toString());
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    List<Solution> solutions = new ArrayList<>();
+    // Enough solutions to flush the buffer a few times.
+    for (int i = 0; i < 100; i++) {
+      solutions.addAll(solutions());
+    }
+    List<String> expected = new ArrayList<>();
+    solutions.forEach(solution -> expected.add(solution.toString()));
+
+    byte[] packed = write(SolutionWriter.Format.PACKED, solutions);
+    byte[] delta = write(SolutionWriter.Format.DELTA, solutions);
+    assertThat(packed).hasSize(6 + 8 * solutions.size());
+    assertThat(decode(packed)).isEqualTo(expected);
+    assertThat(decode(delta)).isEqualTo(expected);
+    assertThat(decode(new byte[0])).isEmpty();
+  }
+
+  @Test
+  public void testInvalid() {
+    byte[] delta = write(SolutionWriter.Format.DELTA, solutions());
+    byte[] truncated = new byte[delta.length - 1];
+    System.arraycopy(delta, 0, truncated, 0, truncated.length);
+    assertThatThrownBy(() -> decode(truncated))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Truncated");
+    assertThatThrownBy(() -> decode("3142\n".getBytes(StandardCharsets.US_ASCII)))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Not a binary");
+  }
+}
@@ -0,0 +1,100 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SolverServiceBenchTest {
+  private static final int PUZZLES = 500;
+  private static final int REQUESTS = 5000;
+  private static final int CLIENTS = 8;
+  private static final long SEED = 2019L;
+  private static final String[] ENDPOINTS = {"/count", "/unique", "/solve"};
+
+  /**
+   * Generate puzzles by removing a random number of clues from random grids.
+   */
+  private static List<String> corpus() {
+    Random random = new Random(SEED);
+    Heuristic shuffle =
+        new Heuristic(Heuristic.CellOrder.RANDOM, Heuristic.ValueOrder.RANDOM, true);
+    List<String> puzzles = new ArrayList<>();
+    for (int p = 0; p < PUZZLES; p++) {
+      Solution grid =
+          FirstSolutionSolver.solve(new Board(new int[9][9]), shuffle, random.nextLong());
+      char[] cells = grid.toString().replace("\n", "").toCharArray();
+      List<Integer> order = new ArrayList<>();
+      for (int i = 0; i < cells.length; i++) {
+        order.add(i);
+      }
+      Collections.shuffle(order, random);
+      for (int i : order.subList(0, 40 + random.nextInt(16))) {
+        cells[i] = '.';
+      }
+      puzzles.add(new String(cells));
+    }
+    return puzzles;
+  }
+
+  /**
+   * Send the requests from many clients at once and print the throughput and
+   * the percentiles of the latencies.
+   */
+  private static void load(String name, int port, List<String> puzzles, int requests)
+      throws Exception {
+    long[] nanos = new long[requests];
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    List<Future<?>> futures = new ArrayList<>();
+    long begin = System.nanoTime();
+    for (int c = 0; c < CLIENTS; c++) {
+      futures.add(clients.submit(() -> {
+        int i;
+        while ((i = next.getAndIncrement()) < requests) {
+          String endpoint = ENDPOINTS[i % ENDPOINTS.length];
+          long start = System.nanoTime();
+          String response =
+              SolverServiceTest.post(port, endpoint, puzzles.get(i % puzzles.size()));
+          nanos[i] = System.nanoTime() - start;
+          assertThat(response).startsWith("200 ");
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    long elapsed = System.nanoTime() - begin;
+    clients.shutdown();
+
+    Arrays.sort(nanos);
+    System.out.println(name
+        + ": " + String.format("%.1f", requests / (elapsed / 1e9)) + " requests/s"
+        + ", p50 " + nanos[requests / 2] / 1000 + "us"
+        + ", p90 " + nanos[(int) Math.ceil(requests * 0.90) - 1] / 1000 + "us"
+        + ", p99 " + nanos[(int) Math.ceil(requests * 0.99) - 1] / 1000 + "us"
+        + ", p99.9 " + nanos[(int) Math.ceil(requests * 0.999) - 1] / 1000 + "us"
+        + ", max " + nanos[requests - 1] / 1000 + "us");
+  }
+
+  @Test
+  public void testBench_service() throws Exception {
+    List<String> puzzles = corpus();
+    int threads = Runtime.getRuntime().availableProcessors();
+    try (SolverService service = new SolverService(0, threads)) {
+      load("Warm-up", service.getPort(), puzzles, REQUESTS / 5);
+      load("Service", service.getPort(), puzzles, REQUESTS);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class SolverServiceTest {
+  private static final String MANY =
+      "..93....1.6...8...4.....2.....4....9..3.5.7..1....6.....6.....8...91..3.2.....4..";
+  private static final String ONE =
+      "800203006050700009004000100790050004000806000100070095003000200500007060400609001";
+  private static final String NONE = "12....4....3....";
+
+  /**
+   * Send a request to the service.
+   * @return the status code followed by the body of the response.
+   */
+  static String post(int port, String endpoint, String body) throws IOException {
+    URL url = new URL("http://127.0.0.1:" + port + endpoint);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod(body == null ? "GET" : "POST");
+    if (body != null) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.US_ASCII));
+      }
+    }
+    int status = connection.getResponseCode();
+    InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    ByteArrayOutputStream response = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) >= 0) {
+      response.write(buffer, 0, read);
+    }
+    in.close();
+    return status + " " + new String(response.toByteArray(), StandardCharsets.US_ASCII);
+  }
+
+  @Test
+  public void testEndpoints() throws IOException {
+    try (SolverService service = new SolverService(0, 2)) {
+      int port = service.getPort();
+      assertThat(post(port, "/count", MANY)).isEqualTo("200 276\n");
+      assertThat(post(port, "/count", ONE + "\n")).isEqualTo("200 1\n");
+      assertThat(post(port, "/unique", MANY)).isEqualTo("200 false\n");
+      assertThat(post(port, "/unique", ONE)).isEqualTo("200 true\n");
+      assertThat(post(port, "/solve", ONE)).matches("200 [1-9]{81}\n");
+      assertThat(post(port, "/solve", NONE)).isEqualTo("200 none\n");
+      assertThat(post(port, "/count", "")).startsWith("400 Illegal argument");
+      assertThat(post(port, "/count", "12x4")).startsWith("400 Illegal argument");
+      assertThat(post(port, "/count", null)).startsWith("405");
+      // Too many candidates to be a small board: runs on the fork/join pool.
+      assertThat(post(port, "/unique", "................")).isEqualTo("200 false\n");
+    }
+  }
+
+  @Test
+  public void testAdmission() throws IOException {
+    try (SolverService service = new SolverService(0, 1, 1, 1e3, 1e6)) {
+      int port = service.getPort();
+      HttpURLConnection connection = (HttpURLConnection)
+          new URL("http://127.0.0.1:" + port + "/count").openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(MANY.getBytes(StandardCharsets.US_ASCII));
+      }
+      assertThat(connection.getResponseCode()).isEqualTo(200);
+      assertThat(connection.getHeaderField("X-Lane")).isEqualTo("batch");
+      assertThat(connection.getHeaderField("X-Actual-Nodes")).isEqualTo("21971");
+      assertThat(Double.parseDouble(connection.getHeaderField("X-Estimated-Nodes")))
+          .isGreaterThan(1e3);
+      connection.getInputStream().close();
+
+      assertThat(post(port, "/count", ONE)).isEqualTo("200 1\n");
+      assertThat(post(port, "/calibration", null))
+          .startsWith("200 estimated,actual,lane\n")
+          .contains(",21971,batch\n", ",scheduled\n");
+    }
+    try (SolverService service = new SolverService(0, 1, 1, 1e2, 1e3)) {
+      assertThat(post(service.getPort(), "/count", MANY)).startsWith("422 ");
+    }
+  }
+
+  @Test
+  public void testIsUnique() {
+    assertThat(SolverService.isUnique(SolverService.parse(ONE), null)).isTrue();
+    assertThat(SolverService.isUnique(SolverService.parse(MANY), null)).isFalse();
+    assertThat(SolverService.isUnique(SolverService.parse(NONE), null)).isFalse();
+  }
+}
@@ -0,0 +1,24 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class WarmupTest {
+  @Test
+  public void testRounds() {
+    assertThat(Warmup.run(0, null)).isEqualTo(1);
+
+    ForkJoinPool pool = new ParallelSolver.Config().parallelism(2).newPool();
+    try {
+      long start = System.nanoTime();
+      assertThat(Warmup.run(100, pool)).isGreaterThanOrEqualTo(1);
+      assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(100000000L);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package sudoku;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import sudoku.util.BigIntSum;
+
+public class WorkStealingSolverTest {
+  @Test
+  public void testEnumerate1() {
+    Board sudoku = new Board(new int[][]{
+      {3, 1, 0, 0},
+      {0, 2, 0, 0},
+      {0, 0, 2, 0},
+      {0, 0, 1, 3}
+    });
+
+    BigIntSum c0 = new BigIntSum(0);
+    BigInteger c1 = WorkStealingSolver.enumerate(sudoku, sol -> {
+      assertThat(sol.toString()).isEqualTo(
+          "3142\n"
+          + "4231\n"
+          + "1324\n"
+          + "2413\n"
+      );
+      synchronized (c0) {
+        c0.inc();
+      }
+    });
+    assertThat(c0.toString()).isEqualTo(c1.toString());
+  }
+
+  @Test
+  public void testEnumerate2() {
+    Board sudoku = new Board(new int[][]{
+      {3, 1, 4, 2},
+      {4, 2, 3, 1},
+      {1, 3, 2, 4},
+      {2, 4, 1, 3}
+    });
+
+    assertThat(WorkStealingSolver.enumerate(sudoku).toString()).isEqualTo("1");
+  }
+
+  @Test
+  public void testEnumerate3() {
+    Board sudoku = new Board(new int[][]{
+      {0, 0, 9, 3, 0, 0, 0, 0, 1},
+      {0, 6, 0, 0, 0, 8, 0, 0, 0},
+      {4, 0, 0, 0, 0, 0, 2, 0, 0},
+      {0, 0, 0, 4, 0, 0, 0, 0, 9},
+      {0, 0, 3, 0, 5, 0, 7, 0, 0},
+      {1, 0, 0, 0, 0, 6, 0, 0, 0},
+      {0, 0, 6, 0, 0, 0, 0, 0, 8},
+      {0, 0, 0, 9, 1, 0, 0, 3, 0},
+      {2, 0, 0, 0, 0, 0, 4, 0, 0}
+    });
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertThat(WorkStealingSolver.enumerate(sudoku, null, pool).toString()).isEqualTo("276");
+    } finally {
+      pool.shutdown();
+    }
+    assertThat(WorkStealingSolver.enumerate(new Board(new int[4][4])).toString())
+      .isEqualTo("288");
+  }
+
+  @Test
+  public void testEnumerateWithoutPool() {
+    AtomicInteger outside = new AtomicInteger();
+    BigInteger count = WorkStealingSolver.enumerate(new Board(new int[4][4]), sol -> {
+      if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+        outside.incrementAndGet();
+      }
+    }, null);
+    assertThat(count.toString()).isEqualTo("288");
+    assertThat(outside.get()).isEqualTo(0);
+    assertThatThrownBy(() -> WorkStealingSolver.enumerate(new Board(new int[4][4]), sol -> {
+      throw new IllegalStateException("Stop");
+    }, null)).isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,49 @@
+package sudoku.util;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+  @Test
+  public void testBuckets() {
+    for (long value : new long[] {0L, 1L, 127L, 128L, 255L, 256L, 1000L, 123456789L,
+        Long.MAX_VALUE}) {
+      int index = LatencyHistogram.index(value);
+      assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+      assertThat(LatencyHistogram.highestValue(index) - value).isLessThanOrEqualTo(value / 128);
+      if (index > 0) {
+        assertThat(LatencyHistogram.highestValue(index - 1)).isLessThan(value);
+      }
+    }
+    assertThat(LatencyHistogram.index(Long.MAX_VALUE)).isEqualTo(57 * 128 - 1);
+  }
+
+  @Test
+  public void testQuantiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.getValueAtQuantile(0.99)).isEqualTo(0L);
+    for (long value = 1; value <= 10000; value++) {
+      histogram.record(value * 1000L);
+    }
+    assertThat(histogram.getCount()).isEqualTo(10000L);
+    assertThat(histogram.getMin()).isEqualTo(1000L);
+    assertThat(histogram.getMax()).isEqualTo(10000000L);
+    assertThat(histogram.getMean()).isCloseTo(5000500.0, within(1e-3));
+    assertThat(histogram.getStdDev()).isCloseTo(2886751.3, within(1.0));
+    assertThat(histogram.getValueAtQuantile(0.5)).isBetween(5000000L, 5000000L + 5000000L / 128);
+    assertThat(histogram.getValueAtQuantile(0.999)).isBetween(9990000L, 10000000L);
+    assertThat(histogram.getValueAtQuantile(1.0)).isEqualTo(10000000L);
+    assertThat(histogram.getValueAtQuantile(0.0)).isBetween(1000L, 1000L + 1000L / 128);
+  }
+
+  @Test
+  public void testInvalid() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThatThrownBy(() -> histogram.record(-1L))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> histogram.getValueAtQuantile(1.5))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
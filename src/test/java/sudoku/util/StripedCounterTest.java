@@ -0,0 +1,49 @@
+package sudoku.util;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class StripedCounterTest {
+  @Test
+  public void testInc() {
+    StripedCounter counter = new StripedCounter(4);
+    IntStream.range(0, 100000).parallel().forEach(i -> counter.inc());
+    assertThat(counter.get().toString()).isEqualTo("100000");
+  }
+
+  @Test
+  public void testAdd() {
+    StripedCounter counter = new StripedCounter(1);
+    counter.add(Long.MAX_VALUE).add(Long.MAX_VALUE).add(2);
+    assertThat(counter.toString()).isEqualTo(
+        BigInteger.valueOf(Long.MAX_VALUE)
+          .multiply(BigInteger.valueOf(2))
+          .add(BigInteger.valueOf(2))
+          .toString()
+    );
+
+    counter.add(BigInteger.ONE.shiftLeft(100));
+    assertThat(counter.toString()).isEqualTo(
+        BigInteger.valueOf(Long.MAX_VALUE)
+          .multiply(BigInteger.valueOf(2))
+          .add(BigInteger.valueOf(2))
+          .add(BigInteger.ONE.shiftLeft(100))
+          .toString()
+    );
+  }
+
+  @Test
+  public void testAddNegative() {
+    assertThatThrownBy(() -> new StripedCounter().add(-1))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The value must be non-negative");
+    assertThatThrownBy(() -> new StripedCounter().add(BigInteger.ONE.shiftLeft(70).negate()))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("The value must be non-negative");
+  }
+}
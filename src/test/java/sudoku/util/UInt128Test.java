@@ -0,0 +1,55 @@
+package sudoku.util;
+
+// checkstyle-disable-next-line AvoidStarImport
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class UInt128Test {
+  private static final BigInteger TWO_TO_64 = BigInteger.ONE.shiftLeft(64);
+
+  @Test
+  public void testInc() {
+    UInt128 value = new UInt128(-2L);
+    assertThat(value.toBigInteger()).isEqualTo(TWO_TO_64.subtract(BigInteger.valueOf(2)));
+    value.inc().inc().inc();
+    assertThat(value.toBigInteger()).isEqualTo(TWO_TO_64.add(BigInteger.ONE));
+    assertThat(value.fitsInLong()).isFalse();
+    assertThat(new UInt128().inc().fitsInLong()).isTrue();
+  }
+
+  @Test
+  public void testAdd() {
+    UInt128 value = new UInt128();
+    value.add(Long.MAX_VALUE).add(Long.MAX_VALUE).add(3L);
+    assertThat(value.toString()).isEqualTo(TWO_TO_64.add(BigInteger.ONE).toString());
+
+    BigInteger big = new BigInteger("6670903752021072936960");
+    value.add(big);
+    assertThat(value.toBigInteger()).isEqualTo(TWO_TO_64.add(BigInteger.ONE).add(big));
+
+    BigInteger max = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE);
+    assertThat(new UInt128().add(max).toBigInteger()).isEqualTo(max);
+    assertThatThrownBy(() -> {
+      new UInt128().add(max).inc();
+    }).isInstanceOf(ArithmeticException.class)
+      .hasMessageContaining("The value does not fit in 128 unsigned bits");
+    assertThatThrownBy(() -> {
+      new UInt128().add(BigInteger.ONE.negate());
+    }).isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void testMerge() {
+    UInt128 a = new UInt128().add(BigInteger.ONE.shiftLeft(100)).add(-1L);
+    UInt128 b = new UInt128(1L);
+    b.merge(a).merge(a);
+    assertThat(b.toBigInteger()).isEqualTo(
+        BigInteger.ONE.shiftLeft(101).add(TWO_TO_64.subtract(BigInteger.ONE).shiftLeft(1))
+          .add(BigInteger.ONE));
+    assertThat(a.toBigInteger()).isEqualTo(
+        BigInteger.ONE.shiftLeft(100).add(TWO_TO_64.subtract(BigInteger.ONE)));
+  }
+}